@@ -0,0 +1,53 @@
+package com.monomart.cache;
+
+import com.monomart.event.CategoryChangedEvent;
+import com.monomart.event.InvalidateAllEvent;
+import com.monomart.event.ProductChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached reads once a write has committed, so a concurrent reader cannot re-cache the
+ * pre-commit state. Products are evicted by id; category pages are dropped wholesale because any
+ * change can shift every page.
+ */
+@Component
+public class CacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    public CacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onProductChanged(ProductChangedEvent event) {
+        evict(CacheNames.PRODUCTS, event.getProductId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onCategoryChanged(CategoryChangedEvent event) {
+        evict(CacheNames.CATEGORIES, event.getCategoryId());
+        clear(CacheNames.CATEGORY_PAGES);
+    }
+
+    @EventListener(InvalidateAllEvent.class)
+    void onInvalidateAll() {
+        cacheManager.getCacheNames().forEach(this::clear);
+    }
+
+    public void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null)
+            cache.evict(key);
+    }
+
+    public void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null)
+            cache.clear();
+    }
+}
@@ -0,0 +1,14 @@
+package com.monomart.cache;
+
+/**
+ * Names of the read-through caches configured under {@code spring.cache}.
+ */
+public final class CacheNames {
+
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_PAGES = "categoryPages";
+
+    private CacheNames() {
+    }
+}
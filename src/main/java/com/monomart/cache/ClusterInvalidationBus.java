@@ -0,0 +1,328 @@
+package com.monomart.cache;
+
+import com.monomart.entities.Category;
+import com.monomart.entities.Product;
+import com.monomart.event.CategoryChangedEvent;
+import com.monomart.event.InvalidateAllEvent;
+import com.monomart.event.ProductChangedEvent;
+import com.monomart.event.TokenRevokedEvent;
+import com.monomart.event.UserChangedEvent;
+import com.monomart.repository.CategoryRepository;
+import com.monomart.repository.ProductRepository;
+import com.monomart.repository.RevokedTokenRepository;
+import com.monomart.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps in-process caches consistent across nodes using Postgres {@code LISTEN/NOTIFY}.
+ *
+ * Local product, category and user changes and token revocations are collected per transaction
+ * and announced just before it commits, one {@code pg_notify} per type carrying the comma-joined
+ * ids, so Postgres delivers them only if the write commits. Every node listens on a dedicated
+ * connection; on receipt it evicts the second-level cache entries, reloads the rows in batches
+ * and replays the changes as remote events so the local caches and read models update themselves.
+ * Notifications sent while a node is disconnected are lost, so a reconnect triggers an
+ * {@link InvalidateAllEvent}.
+ */
+@Slf4j
+@Component
+public class ClusterInvalidationBus {
+
+    static final String CHANNEL = "monomart_invalidation";
+    // Postgres rejects NOTIFY payloads of 8000 bytes or more; ids are ASCII.
+    static final int MAX_PAYLOAD_BYTES = 7_900;
+    private static final int RELOAD_BATCH_SIZE = 500;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher events;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int pollMillis;
+    private final long reconnectMillis;
+    private volatile boolean running;
+    private Thread listener;
+
+    public ClusterInvalidationBus(JdbcTemplate jdbcTemplate,
+                                  DataSourceProperties dataSourceProperties,
+                                  ApplicationEventPublisher events,
+                                  ProductRepository productRepository,
+                                  CategoryRepository categoryRepository,
+                                  UserRepository userRepository,
+                                  RevokedTokenRepository revokedTokenRepository,
+                                  EntityManagerFactory entityManagerFactory,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${cache.invalidation.enabled:true}") boolean enabled,
+                                  @Value("${cache.invalidation.poll-ms:500}") int pollMillis,
+                                  @Value("${cache.invalidation.reconnect-ms:5000}") long reconnectMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.events = events;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled && dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:");
+        this.pollMillis = pollMillis;
+        this.reconnectMillis = reconnectMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled)
+            return;
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener.join(pollMillis * 2L);
+        }
+    }
+
+    @EventListener
+    void onProductChanged(ProductChangedEvent event) {
+        if (!event.isRemote())
+            publish("product", event.getProductId());
+    }
+
+    @EventListener
+    void onCategoryChanged(CategoryChangedEvent event) {
+        if (!event.isRemote())
+            publish("category", event.getCategoryId());
+    }
+
+    @EventListener
+    void onUserChanged(UserChangedEvent event) {
+        if (!event.isRemote())
+            publish("user", event.getUserId());
+    }
+
+    @EventListener
+    void onTokenRevoked(TokenRevokedEvent event) {
+        if (!event.isRemote())
+            publish("token", event.getJti());
+    }
+
+    private void publish(String type, Object id) {
+        if (!enabled)
+            return;
+        meterRegistry.counter("cache.invalidation.published", "type", type).increment();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(type, List.of(id.toString()));
+            return;
+        }
+        PendingInvalidations pending = (PendingInvalidations) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingInvalidations();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        if (pending.sent)
+            send(type, List.of(id.toString()));
+        else
+            pending.ids.computeIfAbsent(type, t -> new LinkedHashSet<>()).add(id.toString());
+    }
+
+    // One pg_notify per type, splitting the id list where it would pass the payload limit.
+    private void send(String type, Collection<String> ids) {
+        String prefix = nodeId + "|" + type + "|";
+        StringBuilder payload = new StringBuilder(prefix);
+        for (String id : ids) {
+            if (payload.length() > prefix.length() && payload.length() + 1 + id.length() > MAX_PAYLOAD_BYTES) {
+                sendPayload(payload.toString());
+                payload.setLength(prefix.length());
+            }
+            if (payload.length() > prefix.length())
+                payload.append(',');
+            payload.append(id);
+        }
+        if (payload.length() > prefix.length())
+            sendPayload(payload.toString());
+    }
+
+    private void sendPayload(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> { }, CHANNEL, payload);
+        meterRegistry.counter("cache.invalidation.notifications").increment();
+    }
+
+    /**
+     * The ids changed by one transaction, sent just before it commits. The notifications go out on
+     * the transaction's own connection, so Postgres still delivers them only once the write commits.
+     */
+    private final class PendingInvalidations implements TransactionSynchronization {
+
+        final Map<String, Set<String>> ids = new LinkedHashMap<>();
+        boolean sent;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            ids.forEach(ClusterInvalidationBus.this::send);
+            sent = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ClusterInvalidationBus.this);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+    private void listen() {
+        boolean missed = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for cache invalidations on channel {} (node {})", CHANNEL, nodeId);
+                if (missed) {
+                    meterRegistry.counter("cache.invalidation.reconnects").increment();
+                    invalidateAll();
+                    missed = false;
+                }
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(pollMillis);
+                    if (notifications != null)
+                        receive(notifications);
+                }
+            } catch (SQLException e) {
+                if (!running)
+                    return;
+                missed = true;
+                log.warn("Cache invalidation listener lost its connection, retrying in {} ms: {}", reconnectMillis, e.getMessage());
+                try {
+                    Thread.sleep(reconnectMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts every id in a poll's notifications right away, then reloads them in batches and
+     * replays the changes as remote events.
+     */
+    private void receive(PGNotification[] notifications) {
+        Map<String, Set<String>> received = new LinkedHashMap<>();
+        for (PGNotification n : notifications) {
+            String[] parts = n.getParameter().split("\\|", 3);
+            if (parts.length != 3 || parts[0].equals(nodeId))
+                continue;
+            List<String> ids = Arrays.asList(parts[2].split(","));
+            received.computeIfAbsent(parts[1], t -> new LinkedHashSet<>()).addAll(ids);
+            meterRegistry.counter("cache.invalidation.received", "type", parts[1]).increment(ids.size());
+        }
+        if (received.isEmpty())
+            return;
+        try {
+            Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+            received.forEach((type, ids) -> {
+                switch (type) {
+                    case "product" -> ids.forEach(id -> cache.evict(Product.class, Long.valueOf(id)));
+                    case "category" -> {
+                        ids.forEach(id -> cache.evict(Category.class, Long.valueOf(id)));
+                        cache.evictQueryRegions();
+                    }
+                    default -> { }
+                }
+            });
+            received.forEach(this::reload);
+        } catch (RuntimeException e) {
+            log.warn("Could not apply cache invalidations {}, flushing everything", received, e);
+            invalidateAll();
+        }
+    }
+
+    private void reload(String type, Set<String> ids) {
+        List<String> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += RELOAD_BATCH_SIZE) {
+            List<String> batch = all.subList(from, Math.min(all.size(), from + RELOAD_BATCH_SIZE));
+            switch (type) {
+                case "token" -> revokedTokenRepository.findAllById(batch).forEach(t ->
+                        events.publishEvent(TokenRevokedEvent.remote(t.getJti(), t.getExpiresAt())));
+                case "product" -> {
+                    Map<Long, Product> found = new HashMap<>();
+                    productRepository.findAllById(toLongs(batch)).forEach(p -> found.put(p.getId(), p));
+                    for (Long id : toLongs(batch))
+                        events.publishEvent(ProductChangedEvent.remote(id, found.get(id)));
+                }
+                case "category" -> {
+                    Map<Long, Category> found = new HashMap<>();
+                    categoryRepository.findAllById(toLongs(batch)).forEach(c -> found.put(c.getId(), c));
+                    for (Long id : toLongs(batch))
+                        events.publishEvent(CategoryChangedEvent.remote(id, found.get(id)));
+                }
+                case "user" -> {
+                    Map<Long, String> usernames = new HashMap<>();
+                    userRepository.findAllById(toLongs(batch)).forEach(u -> usernames.put(u.getId(), u.getUsername()));
+                    for (Long id : toLongs(batch))
+                        events.publishEvent(UserChangedEvent.remote(id, usernames.get(id)));
+                }
+                default -> log.debug("Ignoring cache invalidation of unknown type {}", type);
+            }
+        }
+    }
+
+    private static List<Long> toLongs(List<String> ids) {
+        return ids.stream().map(Long::valueOf).toList();
+    }
+
+    private void invalidateAll() {
+        log.info("Flushing all caches after missed invalidations");
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+        events.publishEvent(new InvalidateAllEvent());
+    }
+}
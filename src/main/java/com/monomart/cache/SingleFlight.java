@@ -0,0 +1,60 @@
+package com.monomart.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces concurrent identical reads: the first caller for a key runs the loader, callers that
+ * arrive while it is in flight wait for and share its result (or exception). Nothing is kept
+ * once the load finishes, so this only absorbs stampedes, e.g. on a cold cache.
+ *
+ * Every call is counted in {@code singleflight.calls}, tagged with the flight name and whether
+ * the caller led the load or shared it.
+ */
+@Component
+public class SingleFlight {
+
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object key, Supplier<T> loader) {
+        List<Object> flightKey = List.of(name, key);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, mine);
+        if (existing != null) {
+            meterRegistry.counter("singleflight.calls", "name", name, "role", "shared").increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re)
+                    throw re;
+                if (e.getCause() instanceof Error err)
+                    throw err;
+                throw e;
+            }
+        }
+
+        meterRegistry.counter("singleflight.calls", "name", name, "role", "leader").increment();
+        try {
+            T result = loader.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, mine);
+        }
+    }
+}
@@ -9,39 +9,49 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirements;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import java.util.Optional;
+import lombok.Data;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import com.monomart.security.JwtTokenService;
+import com.monomart.security.LoginThrottle;
+import com.monomart.security.TokenRevocationService;
 
 @RestController
 @RequestMapping("/api/v1/auth")
 @Tag(name = "Authentication", description = "Authentication and user management endpoints")
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenService jwtTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginThrottle loginThrottle;
 
-    public AuthController(AuthenticationManager authenticationManager,
-                          UserService userService,
+    public AuthController(UserService userService,
                           PasswordEncoder passwordEncoder,
-                          JwtTokenService jwtTokenService) {
-        this.authenticationManager = authenticationManager;
+                          JwtTokenService jwtTokenService,
+                          TokenRevocationService tokenRevocationService,
+                          LoginThrottle loginThrottle) {
         this.userService = userService;
         this.passwordEncoder = passwordEncoder;
         this.jwtTokenService = jwtTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.loginThrottle = loginThrottle;
     }
 
     @PostMapping("/signup")
@@ -61,50 +71,92 @@ public class AuthController {
     @Operation(summary = "User login", description = "Authenticate user and return JWT tokens")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login successful"),
-            @ApiResponse(responseCode = "401", description = "Invalid credentials")
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "429", description = "Too many failed attempts"),
+            @ApiResponse(responseCode = "503", description = "Authentication busy")
     })
     @SecurityRequirements({}) // Override global security - no authentication required
-    public ResponseEntity<?> login(@Valid @RequestBody AuthDtos.LoginRequest request) {
-        User user = userService.findByUsernameOrEmail(request.getUsernameOrEmail())
-                .orElseThrow(() -> new BadCredentialsException("Invalid credentials"));
-
-        Authentication auth = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(user.getUsername(), request.getPassword())
-        );
-        if (!auth.isAuthenticated()) {
-            throw new BadCredentialsException("Invalid credentials");
-        }
-        return ResponseEntity.ok(userService.buildTokensFor(user));
+    public ResponseEntity<?> login(@Valid @RequestBody AuthDtos.LoginRequest request, HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(userService.buildTokensFor(authenticate(request, httpRequest, false)));
     }
 
     @PostMapping("/admin/login")
-    public ResponseEntity<?> adminLogin(@Valid @RequestBody AuthDtos.LoginRequest request) {
-        User user = userService.findByUsernameOrEmail(request.getUsernameOrEmail())
-                .filter(u -> u.getRole() == Role.ROLE_ADMIN)
-                .orElseThrow(() -> new BadCredentialsException("Invalid credentials"));
+    public ResponseEntity<?> adminLogin(@Valid @RequestBody AuthDtos.LoginRequest request, HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(userService.buildTokensFor(authenticate(request, httpRequest, true)));
+    }
 
-        Authentication auth = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(user.getUsername(), request.getPassword())
-        );
-        if (!auth.isAuthenticated()) {
-            throw new BadCredentialsException("Invalid credentials");
+    /**
+     * The IP is checked before the account lookup and the account before the BCrypt round, so a
+     * throttled attempt costs as little as possible; every credential failure then counts against
+     * the client IP and the account. Unknown names get account counters of their own, so they are
+     * throttled like existing accounts. The client IP is {@code getRemoteAddr()}, which behind a
+     * proxy is only the client's address when {@code server.forward-headers-strategy} is set so
+     * trusted {@code X-Forwarded-For} headers are applied.
+     */
+    private User authenticate(AuthDtos.LoginRequest request, HttpServletRequest httpRequest, boolean adminOnly) {
+        String ip = httpRequest.getRemoteAddr();
+        loginThrottle.checkIp(ip);
+        Optional<User> match = userService.findByUsernameOrEmail(request.getUsernameOrEmail());
+        String account = LoginThrottle.account(match.map(User::getId).orElse(null), request.getUsernameOrEmail());
+        loginThrottle.checkAccount(account, ip);
+        try {
+            User user = userService.authenticate(match, request.getPassword());
+            if (adminOnly && user.getRole() != Role.ROLE_ADMIN)
+                throw new BadCredentialsException("Invalid credentials");
+            loginThrottle.recordSuccess(account, ip);
+            return user;
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(account, ip);
+            throw e;
         }
-        return ResponseEntity.ok(userService.buildTokensFor(user));
     }
 
-    @lombok.Data
+    @Data
     public static class RefreshTokenRequest {
-        @jakarta.validation.constraints.NotBlank
+        @NotBlank
         private String refreshToken;
     }
 
     @PostMapping("/refresh")
     public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest request) {
-        Claims claims = jwtTokenService.parseToken(request.getRefreshToken());
+        Claims claims = verify(request.getRefreshToken());
+        if (tokenRevocationService.isRevoked(claims))
+            throw new BadCredentialsException("Invalid refresh token");
         String username = claims.getSubject();
         var user = userService.findByUsernameOrEmail(username).orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        Number ver = claims.get("ver", Number.class);
+        if ((ver != null ? ver.intValue() : 0) < user.getTokenVersion())
+            throw new BadCredentialsException("Invalid refresh token");
         return ResponseEntity.ok(userService.buildTokensFor(user));
     }
-}
 
+    @Data
+    public static class LogoutRequest {
+        private String refreshToken;
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revoke the bearer access token and, if given, the refresh token")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                       @RequestBody(required = false) LogoutRequest request) {
+        if (!authorization.startsWith("Bearer "))
+            throw new BadCredentialsException("Invalid access token");
+        Claims access = verify(authorization.substring(7));
+        tokenRevocationService.revoke(access);
+        if (request != null && request.getRefreshToken() != null) {
+            Claims refresh = verify(request.getRefreshToken());
+            if (!access.getSubject().equals(refresh.getSubject()))
+                throw new BadCredentialsException("Invalid refresh token");
+            tokenRevocationService.revoke(refresh);
+        }
+        return ResponseEntity.noContent().build();
+    }
 
+    private Claims verify(String token) {
+        try {
+            return jwtTokenService.parseToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid token");
+        }
+    }
+}
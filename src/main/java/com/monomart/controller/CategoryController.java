@@ -1,15 +1,20 @@
 package com.monomart.controller;
 
 import com.monomart.dto.category.CategoryDtos;
+import com.monomart.dto.common.CursorPage;
+import com.monomart.entities.Category;
 import com.monomart.service.CategoryService;
+import com.monomart.service.KeysetCursor;
 import com.monomart.mapper.Mappers;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1/categories")
@@ -21,10 +26,35 @@ public class CategoryController {
     public CategoryController(CategoryService categoryService, Mappers mappers) { this.categoryService = categoryService; this.mappers = mappers; }
 
     @GetMapping
-    public Page<CategoryDtos.CategoryResponse> list(Pageable pageable) { return categoryService.list(pageable).map(mappers::toCategoryResponse); }
+    public Page<CategoryDtos.CategoryResponse> list(Pageable pageable, WebRequest request) {
+        Page<Category> categories = categoryService.list(pageable);
+        if (request.checkNotModified(ETags.of(categories), ETags.lastModified(categories.getContent())))
+            return null;
+        return categories.map(mappers::toCategoryResponse);
+    }
+
+    @GetMapping("/scroll")
+    public CursorPage<CategoryDtos.CategoryResponse> scroll(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") int size,
+                                                            WebRequest request) {
+        Window<Category> categories = categoryService.scroll(cursor, size);
+        if (request.checkNotModified(ETags.of(categories), ETags.lastModified(categories.getContent())))
+            return null;
+        Window<CategoryDtos.CategoryResponse> window = categories.map(mappers::toCategoryResponse);
+        return CursorPage.<CategoryDtos.CategoryResponse>builder()
+                .content(window.getContent())
+                .next(KeysetCursor.next(window))
+                .hasNext(window.hasNext())
+                .build();
+    }
 
     @GetMapping("/{id}")
-    public CategoryDtos.CategoryResponse get(@PathVariable Long id) { return mappers.toCategoryResponse(categoryService.get(id)); }
+    public CategoryDtos.CategoryResponse get(@PathVariable Long id, WebRequest request) {
+        Category category = categoryService.get(id);
+        if (request.checkNotModified(ETags.of(category), category.getUpdatedAt().toEpochMilli()))
+            return null;
+        return mappers.toCategoryResponse(category);
+    }
 
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping
@@ -0,0 +1,64 @@
+package com.monomart.controller;
+
+import com.monomart.entities.BaseEntity;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+
+/**
+ * Strong validators for catalog responses, for use with {@code WebRequest.checkNotModified}.
+ *
+ * A single entity is identified by its id and {@code updatedAt}. A listing gets a digest of every
+ * (id, updatedAt) pair plus the paging metadata, so it changes whenever any row on the page or
+ * the page boundaries change.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(BaseEntity entity) {
+        Instant updatedAt = entity.getUpdatedAt();
+        return entity.getId() + "-" + updatedAt.getEpochSecond() + "." + updatedAt.getNano();
+    }
+
+    static String of(Slice<? extends BaseEntity> slice) {
+        String meta = slice.getNumber() + "/" + slice.getSize() + "/" + slice.getSort() + "/" + slice.hasNext()
+                + (slice instanceof Page<?> page ? "/" + page.getTotalElements() : "");
+        return digest(slice.getContent(), meta);
+    }
+
+    static String of(Window<? extends BaseEntity> window) {
+        return digest(window.getContent(), String.valueOf(window.hasNext()));
+    }
+
+    /**
+     * Newest {@code updatedAt} in the content, or -1 (no Last-Modified header) when empty.
+     */
+    static long lastModified(List<? extends BaseEntity> content) {
+        return content.stream()
+                .map(BaseEntity::getUpdatedAt)
+                .max(Instant::compareTo)
+                .map(Instant::toEpochMilli)
+                .orElse(-1L);
+    }
+
+    private static String digest(List<? extends BaseEntity> content, String meta) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(meta.getBytes(StandardCharsets.UTF_8));
+            for (BaseEntity e : content) {
+                md.update((";" + of(e)).getBytes(StandardCharsets.UTF_8));
+            }
+            return "p-" + HexFormat.of().formatHex(md.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
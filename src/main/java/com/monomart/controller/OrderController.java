@@ -1,12 +1,17 @@
 package com.monomart.controller;
 
 import com.monomart.entities.Order;
+import com.monomart.dto.common.CursorPage;
 import com.monomart.dto.order.OrderDtos;
 import com.monomart.security.AuthenticatedUser;
+import com.monomart.service.KeysetCursor;
+import com.monomart.service.OrderPlacementPipeline;
 import com.monomart.service.OrderService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,9 +23,11 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderPlacementPipeline orderPlacementPipeline;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderPlacementPipeline orderPlacementPipeline) {
         this.orderService = orderService;
+        this.orderPlacementPipeline = orderPlacementPipeline;
     }
 
     private Long currentUserId(Authentication auth) {
@@ -30,10 +37,53 @@ public class OrderController {
         throw new IllegalStateException("Invalid principal");
     }
 
+    private OrderDtos.OrderResponse toResponse(Order o) {
+        return OrderDtos.OrderResponse.builder()
+                .id(o.getId())
+                .totalAmount(o.getTotalAmount())
+                .status(o.getStatus())
+                .address(o.getAddress() != null ? OrderDtos.OrderAddressResponse.builder()
+                        .id(o.getAddress().getId())
+                        .addressType(o.getAddress().getAddressType())
+                        .addressLine1(o.getAddress().getAddressLine1())
+                        .addressLine2(o.getAddress().getAddressLine2())
+                        .upazila(o.getAddress().getUpazila())
+                        .city(o.getAddress().getCity())
+                        .country(o.getAddress().getCountry())
+                        .phone(o.getAddress().getPhone())
+                        .email(o.getAddress().getEmail())
+                        .build() : null)
+                .createdAt(o.getCreatedAt())
+                .build();
+    }
+
+    private CursorPage<OrderDtos.OrderResponse> toCursorPage(Window<Order> window) {
+        return CursorPage.<OrderDtos.OrderResponse>builder()
+                .content(window.map(this::toResponse).getContent())
+                .next(KeysetCursor.next(window))
+                .hasNext(window.hasNext())
+                .build();
+    }
+
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPage<OrderDtos.OrderResponse> scrollAll(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "20") int size) {
+        return toCursorPage(orderService.scrollAll(cursor, size));
+    }
+
+    @GetMapping("/me/scroll")
+    public CursorPage<OrderDtos.OrderResponse> scrollMine(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "20") int size,
+                                                          Authentication auth) {
+        return toCursorPage(orderService.scrollByUser(currentUserId(auth), cursor, size));
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public Page<OrderDtos.OrderResponse> listAll(Pageable pageable) {
-        return orderService.listAll(pageable).map(o -> OrderDtos.OrderResponse.builder()
+    public Slice<OrderDtos.OrderResponse> listAll(Pageable pageable, @RequestParam(defaultValue = "true") boolean withTotal) {
+        Slice<Order> orders = withTotal ? orderService.listAll(pageable) : orderService.listAllSlice(pageable);
+        return orders.map(o -> OrderDtos.OrderResponse.builder()
                 .id(o.getId())
                 .totalAmount(o.getTotalAmount())
                 .status(o.getStatus())
@@ -76,7 +126,7 @@ public class OrderController {
     @PostMapping("/place")
     public ResponseEntity<OrderDtos.OrderResponse> place(
             @RequestBody @Valid OrderDtos.PlaceOrderRequest request, Authentication auth) {
-        Order o = orderService.placeOrder(currentUserId(auth), request.getAddressId());
+        Order o = orderPlacementPipeline.place(currentUserId(auth), request.getAddressId());
         return ResponseEntity.status(HttpStatus.CREATED).body(OrderDtos.OrderResponse.builder()
                 .id(o.getId())
                 .totalAmount(o.getTotalAmount())
@@ -1,18 +1,35 @@
 package com.monomart.controller;
 
+import com.monomart.dto.common.CursorPage;
 import com.monomart.dto.product.ProductDtos;
+import com.monomart.entities.Product;
+import com.monomart.image.ImageStore;
 import com.monomart.mapper.Mappers;
+import com.monomart.search.ProductFacets;
+import com.monomart.search.ProductSuggester;
+import com.monomart.service.KeysetCursor;
+import com.monomart.service.ProductImportService;
 import com.monomart.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirements;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -20,36 +37,156 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductSuggester productSuggester;
+    private final ProductFacets productFacets;
+    private final ImageStore imageStore;
     private final Mappers mappers;
 
-    public ProductController(ProductService productService, Mappers mappers) {
+    public ProductController(ProductService productService, ProductImportService productImportService,
+                             ProductSuggester productSuggester, ProductFacets productFacets,
+                             ImageStore imageStore, Mappers mappers) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productSuggester = productSuggester;
+        this.productFacets = productFacets;
+        this.imageStore = imageStore;
         this.mappers = mappers;
     }
 
     @GetMapping
-    @Operation(summary = "List all products", description = "Get paginated list of all products")
+    @Operation(summary = "List all products", description = "Get paginated list of all products; withTotal=false skips the total count")
     @SecurityRequirements({}) // Override global security - no authentication required
-    public Page<ProductDtos.ProductResponse> list(Pageable pageable) { return productService.list(pageable).map(mappers::toProductResponse); }
+    public Slice<ProductDtos.ProductResponse> list(Pageable pageable, @RequestParam(defaultValue = "true") boolean withTotal,
+                                                   WebRequest request) {
+        Slice<Product> products = withTotal ? productService.list(pageable) : productService.listSlice(pageable);
+        if (request.checkNotModified(ETags.of(products), ETags.lastModified(products.getContent())))
+            return null;
+        return products.map(mappers::toProductResponse);
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll all products", description = "Keyset-paginated list of products, newest first; pass the returned next cursor to continue")
+    @SecurityRequirements({}) // Override global security - no authentication required
+    public CursorPage<ProductDtos.ProductResponse> scroll(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "20") int size,
+                                                          WebRequest request) {
+        Window<Product> products = productService.scroll(cursor, size);
+        if (request.checkNotModified(ETags.of(products), ETags.lastModified(products.getContent())))
+            return null;
+        Window<ProductDtos.ProductResponse> window = products.map(mappers::toProductResponse);
+        return CursorPage.<ProductDtos.ProductResponse>builder()
+                .content(window.getContent())
+                .next(KeysetCursor.next(window))
+                .hasNext(window.hasNext())
+                .build();
+    }
 
     @GetMapping("/category/{categoryId}")
-    @Operation(summary = "List products by category", description = "Get paginated list of products filtered by category")
+    @Operation(summary = "List products by category", description = "Get paginated list of products filtered by category; withTotal=false skips the total count")
+    @SecurityRequirements({}) // Override global security - no authentication required
+    public Slice<ProductDtos.ProductResponse> listByCategory(@PathVariable Long categoryId, Pageable pageable,
+                                                             @RequestParam(defaultValue = "true") boolean withTotal,
+                                                             WebRequest request) {
+        Slice<Product> products = withTotal
+                ? productService.listByCategory(categoryId, pageable)
+                : productService.listSliceByCategory(categoryId, pageable);
+        if (request.checkNotModified(ETags.of(products), ETags.lastModified(products.getContent())))
+            return null;
+        return products.map(mappers::toProductResponse);
+    }
+
+    @GetMapping("/filter")
+    @Operation(summary = "Filter products", description = "Filter by price range, stock and categories, sorted by NEWEST, PRICE_ASC or PRICE_DESC; withTotal=false skips the total count")
+    @SecurityRequirements({}) // Override global security - no authentication required
+    public Slice<ProductDtos.ProductResponse> filter(@Valid ProductDtos.ProductFilter filter, Pageable pageable,
+                                                     @RequestParam(defaultValue = "true") boolean withTotal,
+                                                     WebRequest request) {
+        Slice<Product> products = withTotal ? productService.filter(filter, pageable) : productService.filterSlice(filter, pageable);
+        if (request.checkNotModified(ETags.of(products), ETags.lastModified(products.getContent())))
+            return null;
+        return products.map(mappers::toProductResponse);
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Product facet counts", description = "Per-category and per-price-bucket product counts for the filter sidebar; served from memory")
+    @SecurityRequirements({}) // Override global security - no authentication required
+    public ProductDtos.Facets facets(@RequestParam(required = false) List<Long> categoryIds,
+                                     @RequestParam(defaultValue = "false") boolean inStock) {
+        return productFacets.facets(categoryIds, inStock);
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Product change feed", description = "Upserts and deletions since the given cursor in the order their transactions wrote them, once no older transaction is still running; omit the cursor to start from the beginning and keep the returned next cursor to resume")
+    @SecurityRequirements({}) // Override global security - no authentication required
+    public ProductDtos.ChangeFeed changes(@RequestParam(required = false) String since,
+                                          @RequestParam(defaultValue = "100") int limit) {
+        ProductService.Changes changes = productService.changes(since, limit);
+        return ProductDtos.ChangeFeed.builder()
+                .changes(changes.changes().stream()
+                        .map(c -> ProductDtos.ProductChange.builder()
+                                .type(c.product() != null ? "upsert" : "delete")
+                                .id(c.id())
+                                .changedAt(c.changedAt())
+                                .product(c.product() != null ? mappers.toProductResponse(c.product()) : null)
+                                .build())
+                        .toList())
+                .next(changes.next())
+                .hasMore(changes.hasMore())
+                .build();
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Resolve several products in one call, in request order; unknown ids are listed under missing")
+    @SecurityRequirements({}) // Override global security - no authentication required
+    public ProductDtos.BatchResponse batch(@RequestParam("ids") List<Long> ids) {
+        return toBatchResponse(productService.getAll(ids));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get products by IDs (POST)", description = "Same as GET /batch for id lists too long for a query string")
     @SecurityRequirements({}) // Override global security - no authentication required
-    public Page<ProductDtos.ProductResponse> listByCategory(@PathVariable Long categoryId, Pageable pageable) {
-        return productService.listByCategory(categoryId, pageable).map(mappers::toProductResponse);
+    public ProductDtos.BatchResponse batchPost(@Valid @RequestBody ProductDtos.BatchRequest request) {
+        return toBatchResponse(productService.getAll(request.getIds()));
+    }
+
+    private ProductDtos.BatchResponse toBatchResponse(ProductService.Batch batch) {
+        return ProductDtos.BatchResponse.builder()
+                .products(batch.found().stream().map(mappers::toProductResponse).toList())
+                .missing(batch.missing())
+                .build();
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest products", description = "Autocomplete product names starting with (any word of) the given prefix; served from memory")
+    @SecurityRequirements({}) // Override global security - no authentication required
+    public List<ProductDtos.Suggestion> suggest(@RequestParam("prefix") String prefix,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        return productSuggester.suggest(prefix, limit);
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search products", description = "Search products by name")
+    @Operation(summary = "Search products", description = "Search products by name and description; every word of q must start a word of the product, ranked by relevance. With a sort, or while the index is warming up, matches q as a substring of the name instead. withTotal=false skips the total count")
     @SecurityRequirements({}) // Override global security - no authentication required
-    public Page<ProductDtos.ProductResponse> search(@RequestParam("q") String q, Pageable pageable) {
-        return productService.searchByName(q, pageable).map(mappers::toProductResponse);
+    public Slice<ProductDtos.ProductResponse> search(@RequestParam("q") String q, Pageable pageable,
+                                                     @RequestParam(defaultValue = "true") boolean withTotal,
+                                                     WebRequest request) {
+        Slice<Product> products = withTotal ? productService.searchByName(q, pageable) : productService.searchSliceByName(q, pageable);
+        if (request.checkNotModified(ETags.of(products), ETags.lastModified(products.getContent())))
+            return null;
+        return products.map(mappers::toProductResponse);
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get product by ID", description = "Get detailed information about a specific product")
+    @Operation(summary = "Get product by ID", description = "Get detailed information about a specific product; honors If-None-Match / If-Modified-Since")
     @SecurityRequirements({}) // Override global security - no authentication required
-    public ProductDtos.ProductResponse get(@PathVariable Long id) { return mappers.toProductResponse(productService.get(id)); }
+    public ProductDtos.ProductResponse get(@PathVariable Long id, WebRequest request) {
+        // Served from the product cache, so a 304 costs neither a query nor serialization.
+        Product product = productService.get(id);
+        if (request.checkNotModified(ETags.of(product), product.getUpdatedAt().toEpochMilli()))
+            return null;
+        return mappers.toProductResponse(product);
+    }
 
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping
@@ -58,6 +195,17 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(mappers.toProductResponse(productService.create(request)));
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" }, produces = "application/x-ndjson")
+    @Operation(summary = "Bulk import products", description = "Admin only - Stream a CSV (with header row) or NDJSON catalog; products are upserted by SKU and progress, row errors and a summary are streamed back as NDJSON")
+    public void importProducts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ProductImportService.Format format = request.getContentType().startsWith("text/csv")
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        response.setContentType("application/x-ndjson");
+        productImportService.importProducts(request.getInputStream(), format, response.getOutputStream());
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/{id}")
     @Operation(summary = "Update a product", description = "Admin only - Update an existing product")
@@ -73,11 +221,34 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}/hot-sku")
+    @Operation(summary = "Toggle hot SKU mode", description = "Admin only - Split a product's stock across striped counters for flash sales, or fold it back")
+    public ProductDtos.ProductResponse setHotSku(@PathVariable Long id, @Valid @RequestBody ProductDtos.HotSkuRequest request) {
+        return mappers.toProductResponse(productService.setHotSku(id, request));
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/{id}/image")
-    @Operation(summary = "Update product image", description = "Admin only - Update product image")
-    public ProductDtos.ProductResponse updateImage(@PathVariable Long id, @RequestBody String imageUrlOrBase64) {
-        return mappers.toProductResponse(productService.updateImage(id, imageUrlOrBase64));
+    @Operation(summary = "Set external product image", description = "Admin only - Point the product at an external image URL; upload files with POST instead")
+    public ProductDtos.ProductResponse updateImage(@PathVariable Long id, @RequestBody String imageUrl) {
+        return mappers.toProductResponse(productService.updateImage(id, imageUrl));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload product image", description = "Admin only - Upload a JPEG, PNG, GIF or WebP image as multipart field 'file'")
+    public ProductDtos.ProductResponse uploadImage(@PathVariable Long id, @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return mappers.toProductResponse(productService.setImage(id, imageStore.store(in)));
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/{id}/image", consumes = { MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE, "image/webp" })
+    @Operation(summary = "Stream product image", description = "Admin only - Upload the raw image bytes as the request body")
+    public ProductDtos.ProductResponse streamImage(@PathVariable Long id, HttpServletRequest request) throws IOException {
+        return mappers.toProductResponse(productService.setImage(id, imageStore.store(request.getInputStream())));
     }
 }
 
@@ -120,4 +120,11 @@ public class UserController {
         User user = userService.findById(userId);
         return ResponseEntity.ok(buildProfile(user, cartPageable, orderPageable));
     }
+
+    @PostMapping("/{userId}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long userId) {
+        userService.revokeTokens(userId);
+        return ResponseEntity.noContent().build();
+    }
 }
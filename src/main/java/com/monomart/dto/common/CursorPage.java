@@ -0,0 +1,17 @@
+package com.monomart.dto.common;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * One slice of a keyset-paginated listing. Pass {@code next} back as {@code cursor} to fetch the
+ * following slice; it is {@code null} on the last one.
+ */
+@Value
+@Builder
+public class CursorPage<T> {
+    List<T> content;
+    String next;
+    boolean hasNext;
+}
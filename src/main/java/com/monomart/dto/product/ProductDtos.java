@@ -1,11 +1,20 @@
 package com.monomart.dto.product;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import lombok.Builder;
 import lombok.Data;
+import lombok.Value;
 
 public class ProductDtos {
     @Data
@@ -16,7 +25,7 @@ public class ProductDtos {
         @Size(max = 1000)
         private String description;
         @NotNull
-        @jakarta.validation.constraints.DecimalMin(value = "0.0", inclusive = true)
+        @DecimalMin(value = "0.0", inclusive = true)
         private BigDecimal price;
         @NotNull
         @Min(0)
@@ -35,7 +44,7 @@ public class ProductDtos {
         @Size(max = 1000)
         private String description;
         @NotNull
-        @jakarta.validation.constraints.DecimalMin(value = "0.0", inclusive = true)
+        @DecimalMin(value = "0.0", inclusive = true)
         private BigDecimal price;
         @NotNull
         @Min(0)
@@ -46,8 +55,8 @@ public class ProductDtos {
         private String imageUrl;
     }
 
-    @lombok.Builder
-    @lombok.Value
+    @Builder
+    @Value
     public static class ProductResponse {
         Long id;
         String name;
@@ -57,5 +66,130 @@ public class ProductDtos {
         Integer stockQuantity;
         Long categoryId;
         String imageUrl;
+        Map<String, String> imageVariants;
+        Integer stockStripes;
+    }
+
+    @Data
+    public static class ImportProductRow {
+        @Size(max = 36)
+        private String sku;
+        @NotBlank
+        @Size(min = 2, max = 150)
+        private String name;
+        @Size(max = 1000)
+        private String description;
+        @NotNull
+        @DecimalMin(value = "0.0", inclusive = true)
+        private BigDecimal price;
+        @NotNull
+        @Min(0)
+        private Integer stockQuantity;
+        private Long categoryId;
+        private String categoryName;
+        @Size(max = 500)
+        private String imageUrl;
+    }
+
+    @Builder
+    @Value
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ImportEvent {
+        String type; // progress, error or summary
+        Long line;
+        String message;
+        Long processed;
+        Long created;
+        Long updated;
+        Long failed;
+    }
+
+    @Data
+    public static class HotSkuRequest {
+        @NotNull
+        private Boolean enabled;
+        @Min(1)
+        @Max(64)
+        private Integer stripes;
+    }
+
+    @Builder
+    @Value
+    public static class Suggestion {
+        Long id;
+        String name;
+    }
+
+    public enum FilterSort {
+        NEWEST, PRICE_ASC, PRICE_DESC
+    }
+
+    @Data
+    public static class ProductFilter {
+        @DecimalMin(value = "0.0", inclusive = true)
+        private BigDecimal minPrice;
+        @DecimalMin(value = "0.0", inclusive = true)
+        private BigDecimal maxPrice;
+        private boolean inStock;
+        @Size(max = 100)
+        private List<Long> categoryIds;
+        private FilterSort sort = FilterSort.NEWEST;
+    }
+
+    @Builder
+    @Value
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Facets {
+        boolean ready;
+        Long total;
+        Long inStock;
+        List<CategoryFacet> categories;
+        List<PriceFacet> priceBuckets;
+    }
+
+    @Builder
+    @Value
+    public static class CategoryFacet {
+        Long categoryId;
+        long count;
+    }
+
+    @Builder
+    @Value
+    public static class PriceFacet {
+        BigDecimal min;
+        BigDecimal max; // exclusive; null for the open-ended top bucket
+        long count;
+    }
+
+    @Data
+    public static class BatchRequest {
+        @NotEmpty
+        private List<Long> ids;
+    }
+
+    @Builder
+    @Value
+    public static class BatchResponse {
+        List<ProductResponse> products; // in request order
+        List<Long> missing;
+    }
+
+    @Builder
+    @Value
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ProductChange {
+        String type; // upsert or delete
+        Long id;
+        Instant changedAt;
+        ProductResponse product; // absent for deletions
+    }
+
+    @Builder
+    @Value
+    public static class ChangeFeed {
+        List<ProductChange> changes;
+        String next;
+        boolean hasMore;
     }
 }
@@ -19,8 +19,13 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
 
+    // Each entity declares its own sequence under this generator name. Pooled allocation hands out
+    // ids in blocks so Hibernate can batch inserts, which IDENTITY generation rules out.
+    public static final String ID_GENERATOR = "id_generator";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_GENERATOR)
     private Long id;
 
     @CreatedDate
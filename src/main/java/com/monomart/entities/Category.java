@@ -3,17 +3,22 @@ package com.monomart.entities;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
+@SequenceGenerator(name = BaseEntity.ID_GENERATOR, sequenceName = "categories_id_seq", allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
 @Table(name = "categories", indexes = {
         @Index(name = "idx_categories_name", columnList = "name", unique = true)
 })
@@ -10,6 +10,7 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -24,10 +25,13 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
+@SequenceGenerator(name = BaseEntity.ID_GENERATOR, sequenceName = "orders_id_seq", allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
 @Table(name = "orders", indexes = {
         @Index(name = "idx_orders_user", columnList = "user_id"),
         @Index(name = "idx_orders_status", columnList = "status"),
-        @Index(name = "idx_orders_address", columnList = "address_id")
+        @Index(name = "idx_orders_address", columnList = "address_id"),
+        @Index(name = "idx_orders_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_user_created_id", columnList = "user_id, created_at, id")
 })
 public class Order extends BaseEntity {
 
@@ -13,6 +13,7 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
+@SequenceGenerator(name = BaseEntity.ID_GENERATOR, sequenceName = "order_addresses_id_seq", allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
 @Table(name = "order_addresses")
 public class OrderAddress extends BaseEntity {
 
@@ -6,6 +6,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -18,6 +19,7 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
+@SequenceGenerator(name = BaseEntity.ID_GENERATOR, sequenceName = "order_items_id_seq", allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
 @Table(name = "order_items", indexes = {
         @Index(name = "idx_order_items_order", columnList = "order_id"),
         @Index(name = "idx_order_items_product", columnList = "product_id")
@@ -6,6 +6,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -15,14 +16,23 @@ import java.math.BigDecimal;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
+@SequenceGenerator(name = BaseEntity.ID_GENERATOR, sequenceName = "products_id_seq", allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
 @Table(name = "products", indexes = {
         @Index(name = "idx_products_name", columnList = "name"),
-        @Index(name = "idx_products_category", columnList = "category_id")
+        @Index(name = "idx_products_category", columnList = "category_id"),
+        @Index(name = "idx_products_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_category_price_id", columnList = "category_id, price, id"),
+        @Index(name = "idx_products_category_created_id", columnList = "category_id, created_at, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_change_xid_id", columnList = "change_xid, id")
 })
 public class Product extends BaseEntity {
 
@@ -55,4 +65,21 @@ public class Product extends BaseEntity {
     @Size(max = 500)
     @Column(name = "image_url", length = 500)
     private String imageUrl;
+
+    // Key of an uploaded image in the ImageStore; imageUrl then points at the image endpoint.
+    @Column(name = "image_key", length = 80)
+    private String imageKey;
+
+    // Comma-separated names of the resized variants generated for imageKey, e.g. "thumb,small,medium".
+    @Column(name = "image_variants", length = 100)
+    private String imageVariants;
+
+    // 0 = regular SKU; N > 0 = hot SKU whose available stock lives in N product_stock_stripes rows
+    @Min(0)
+    @Column(name = "stock_stripes", nullable = false)
+    private Integer stockStripes = 0;
+
+    // Transaction that last wrote the row, stamped by a database trigger; orders the change feed.
+    @Column(name = "change_xid", insertable = false, updatable = false)
+    private Long changeXid;
 }
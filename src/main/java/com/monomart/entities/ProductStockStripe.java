@@ -0,0 +1,40 @@
+package com.monomart.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@SequenceGenerator(name = BaseEntity.ID_GENERATOR, sequenceName = "product_stock_stripes_id_seq", allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
+@Table(name = "product_stock_stripes", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_product_stock_stripes", columnNames = { "product_id", "stripe" })
+})
+public class ProductStockStripe extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @NotNull
+    @Min(0)
+    @Column(nullable = false)
+    private Integer stripe;
+
+    @NotNull
+    @Min(0)
+    @Column(nullable = false)
+    private Integer quantity;
+}
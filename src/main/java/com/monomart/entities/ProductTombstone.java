@@ -0,0 +1,41 @@
+package com.monomart.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Records that a product was deleted, so the change feed can report the deletion after the
+ * product row itself is gone.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "product_tombstones", indexes = {
+        @Index(name = "idx_product_tombstones_change_xid_id", columnList = "change_xid, product_id")
+})
+public class ProductTombstone {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    // Transaction that wrote the tombstone, stamped by a database trigger; orders the change feed.
+    @Column(name = "change_xid", insertable = false, updatable = false)
+    private Long changeXid;
+
+    public ProductTombstone(Long productId, Instant deletedAt) {
+        this.productId = productId;
+        this.deletedAt = deletedAt;
+    }
+}
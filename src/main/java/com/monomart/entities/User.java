@@ -16,6 +16,7 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @Entity
+@SequenceGenerator(name = BaseEntity.ID_GENERATOR, sequenceName = "users_id_seq", allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
 @Table(name = "users", indexes = {
         @Index(name = "idx_users_username", columnList = "username", unique = true),
         @Index(name = "idx_users_email", columnList = "email", unique = true)
@@ -41,6 +42,10 @@ public class User extends BaseEntity {
     @Column(nullable = false, length = 32)
     private Role role;
 
+    // Tokens carry the version they were issued under; bumping it invalidates all of them.
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<UserAddress> addresses = new ArrayList<>();
 }
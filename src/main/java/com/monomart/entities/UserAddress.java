@@ -12,6 +12,7 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
+@SequenceGenerator(name = BaseEntity.ID_GENERATOR, sequenceName = "user_addresses_id_seq", allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
 @Table(name = "user_addresses")
 public class UserAddress extends BaseEntity {
 
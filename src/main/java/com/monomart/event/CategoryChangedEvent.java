@@ -0,0 +1,40 @@
+package com.monomart.event;
+
+import com.monomart.entities.Category;
+import lombok.Getter;
+
+/**
+ * Published by {@code CategoryService} whenever a category is created, updated or deleted.
+ */
+@Getter
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+    private final Category category; // null when the category was deleted
+    private final boolean remote;
+
+    private CategoryChangedEvent(Long categoryId, Category category, boolean remote) {
+        this.categoryId = categoryId;
+        this.category = category;
+        this.remote = remote;
+    }
+
+    public static CategoryChangedEvent saved(Category category) {
+        return new CategoryChangedEvent(category.getId(), category, false);
+    }
+
+    public static CategoryChangedEvent deleted(Long categoryId) {
+        return new CategoryChangedEvent(categoryId, null, false);
+    }
+
+    /**
+     * A change committed on another node and replayed here by the cluster invalidation bus.
+     */
+    public static CategoryChangedEvent remote(Long categoryId, Category current) {
+        return new CategoryChangedEvent(categoryId, current, true);
+    }
+
+    public boolean isDeleted() {
+        return category == null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.monomart.event;
+
+/**
+ * Tells every in-process cache and read model to drop or rebuild its contents, e.g. after the
+ * cluster invalidation bus reconnects and may have missed changes made on other nodes.
+ */
+public class InvalidateAllEvent {
+}
@@ -0,0 +1,55 @@
+package com.monomart.event;
+
+import com.monomart.entities.Product;
+import lombok.Getter;
+
+/**
+ * Published by {@code ProductService} whenever a product is created, updated or deleted, and by
+ * {@code InventoryService} when checkout changes a product's stock. In-memory read models listen
+ * for it after the surrounding transaction commits.
+ */
+@Getter
+public class ProductChangedEvent {
+
+    private final Long productId;
+    private final Product product; // null when the product was deleted or only its stock changed
+    private final Integer stockQuantity; // set only for stock changes
+    private final boolean remote;
+
+    private ProductChangedEvent(Long productId, Product product, Integer stockQuantity, boolean remote) {
+        this.productId = productId;
+        this.product = product;
+        this.stockQuantity = stockQuantity;
+        this.remote = remote;
+    }
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(product.getId(), product, null, false);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null, null, false);
+    }
+
+    /**
+     * Checkout decremented the product's stock with a native update; nothing else about it changed.
+     */
+    public static ProductChangedEvent stockChanged(Long productId, int stockQuantity) {
+        return new ProductChangedEvent(productId, null, stockQuantity, false);
+    }
+
+    /**
+     * A change committed on another node and replayed here by the cluster invalidation bus.
+     */
+    public static ProductChangedEvent remote(Long productId, Product current) {
+        return new ProductChangedEvent(productId, current, null, true);
+    }
+
+    public boolean isDeleted() {
+        return product == null && stockQuantity == null;
+    }
+
+    public boolean isStockOnly() {
+        return stockQuantity != null;
+    }
+}
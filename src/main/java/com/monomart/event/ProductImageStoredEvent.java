@@ -0,0 +1,19 @@
+package com.monomart.event;
+
+import lombok.Getter;
+
+/**
+ * Published by {@code ProductService} when a product is pointed at a newly uploaded image, so
+ * resized variants can be generated once the change has committed.
+ */
+@Getter
+public class ProductImageStoredEvent {
+
+    private final Long productId;
+    private final String imageKey;
+
+    public ProductImageStoredEvent(Long productId, String imageKey) {
+        this.productId = productId;
+        this.imageKey = imageKey;
+    }
+}
@@ -0,0 +1,33 @@
+package com.monomart.event;
+
+import java.time.Instant;
+import lombok.Getter;
+
+/**
+ * Published by {@code TokenRevocationService} when a token id is revoked, so every node adds it
+ * to its in-memory revocation set once the revocation has committed.
+ */
+@Getter
+public class TokenRevokedEvent {
+
+    private final String jti;
+    private final Instant expiresAt;
+    private final boolean remote;
+
+    private TokenRevokedEvent(String jti, Instant expiresAt, boolean remote) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+        this.remote = remote;
+    }
+
+    public static TokenRevokedEvent revoked(String jti, Instant expiresAt) {
+        return new TokenRevokedEvent(jti, expiresAt, false);
+    }
+
+    /**
+     * A revocation committed on another node and replayed here by the cluster invalidation bus.
+     */
+    public static TokenRevokedEvent remote(String jti, Instant expiresAt) {
+        return new TokenRevokedEvent(jti, expiresAt, true);
+    }
+}
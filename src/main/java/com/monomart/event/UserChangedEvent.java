@@ -0,0 +1,32 @@
+package com.monomart.event;
+
+import lombok.Getter;
+
+/**
+ * Published by {@code UserService} whenever a user account changes in a way that cached
+ * principals or tokens must observe.
+ */
+@Getter
+public class UserChangedEvent {
+
+    private final Long userId;
+    private final String username;
+    private final boolean remote;
+
+    private UserChangedEvent(Long userId, String username, boolean remote) {
+        this.userId = userId;
+        this.username = username;
+        this.remote = remote;
+    }
+
+    public static UserChangedEvent changed(Long userId, String username) {
+        return new UserChangedEvent(userId, username, false);
+    }
+
+    /**
+     * A change committed on another node and replayed here by the cluster invalidation bus.
+     */
+    public static UserChangedEvent remote(Long userId, String username) {
+        return new UserChangedEvent(userId, username, true);
+    }
+}
@@ -0,0 +1,18 @@
+package com.monomart.exception;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * Raised when a stock reservation cannot be satisfied; carries the SKUs that fell short.
+ */
+@Getter
+public class InsufficientStockException extends IllegalArgumentException {
+
+    private final List<String> skus;
+
+    public InsufficientStockException(List<String> skus) {
+        super("Insufficient stock for products: " + String.join(", ", skus));
+        this.skus = List.copyOf(skus);
+    }
+}
@@ -0,0 +1,30 @@
+package com.monomart.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Rejects a request that may succeed later; rendered with a {@code Retry-After} header.
+ */
+@Getter
+public class RetryLaterException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    private RetryLaterException(HttpStatus status, String message, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    /** The server is shedding load (503). */
+    public static RetryLaterException overloaded(String message, long retryAfterSeconds) {
+        return new RetryLaterException(HttpStatus.SERVICE_UNAVAILABLE, message, retryAfterSeconds);
+    }
+
+    /** The caller is being rate limited (429). */
+    public static RetryLaterException throttled(String message, long retryAfterSeconds) {
+        return new RetryLaterException(HttpStatus.TOO_MANY_REQUESTS, message, retryAfterSeconds);
+    }
+}
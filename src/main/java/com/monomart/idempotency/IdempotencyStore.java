@@ -0,0 +1,107 @@
+package com.monomart.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Bounded in-memory store of recent idempotent requests and their serialized responses.
+ *
+ * Entries are keyed by user and {@code Idempotency-Key} and expire after a fixed TTL. The store is
+ * bounded by the bytes it holds rather than by entry count, since responses vary in size. In-flight
+ * entries weigh nothing, which exempts them from eviction: dropping one would let a retry run the
+ * request twice. Completed entries are evicted when the store is full, and a late retry of an
+ * evicted key then runs again, the same as after the TTL.
+ */
+@Component
+public class IdempotencyStore {
+
+    public enum Outcome { NEW, REPLAY, IN_FLIGHT, MISMATCH }
+
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    public record Lookup(Outcome outcome, StoredResponse response) {
+    }
+
+    // Rough per-entry cost of the map node, entry and response objects.
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private record Entry(byte[] fingerprint, StoredResponse response) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Entry> entries;
+
+    public IdempotencyStore(MeterRegistry meterRegistry,
+                            @Value("${idempotency.ttl:PT1H}") Duration ttl,
+                            @Value("${idempotency.max-size:64MB}") DataSize maxSize) {
+        this.meterRegistry = meterRegistry;
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxSize.toBytes())
+                .weigher(IdempotencyStore::weigh)
+                .removalListener((String key, Entry entry, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE)
+                        meterRegistry.counter("idempotency.store.evicted").increment();
+                })
+                .build();
+        meterRegistry.gauge("idempotency.store.size", entries, Cache::estimatedSize);
+        meterRegistry.gauge("idempotency.store.bytes", entries,
+                c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L));
+    }
+
+    /**
+     * Claims {@code key} for a new request, or reports why it cannot be executed again.
+     */
+    public Lookup begin(String key, byte[] fingerprint) {
+        Entry claimed = new Entry(fingerprint, null);
+        Entry entry = entries.asMap().putIfAbsent(key, claimed);
+
+        Outcome outcome;
+        if (entry == null) {
+            outcome = Outcome.NEW;
+        } else if (!Arrays.equals(entry.fingerprint(), fingerprint)) {
+            outcome = Outcome.MISMATCH;
+        } else if (entry.response() == null) {
+            outcome = Outcome.IN_FLIGHT;
+        } else {
+            outcome = Outcome.REPLAY;
+        }
+        meterRegistry.counter("idempotency.requests", "result", outcome.name().toLowerCase()).increment();
+        return new Lookup(outcome, entry != null ? entry.response() : null);
+    }
+
+    public void complete(String key, StoredResponse response) {
+        entries.asMap().computeIfPresent(key, (k, entry) -> new Entry(entry.fingerprint(), response));
+    }
+
+    /**
+     * Releases a claimed key so the client can retry, e.g. after a failed request.
+     */
+    public void release(String key) {
+        entries.asMap().computeIfPresent(key, (k, entry) -> entry.response() == null ? null : entry);
+    }
+
+    // Caffeine expires lazily; this keeps the gauges honest when traffic is idle.
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        entries.cleanUp();
+    }
+
+    private static int weigh(String key, Entry entry) {
+        StoredResponse response = entry.response();
+        if (response == null)
+            return 0;
+        long bytes = ENTRY_OVERHEAD_BYTES + 2L * key.length() + entry.fingerprint().length + response.body().length
+                + (response.contentType() != null ? 2L * response.contentType().length() : 0);
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+}
@@ -0,0 +1,190 @@
+package com.monomart.image;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import javax.imageio.ImageIO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+/**
+ * Content-addressed image files on local disk.
+ *
+ * Uploads are streamed to a temp file while their SHA-256 is computed, then moved to
+ * {@code <dir>/<h0h1>/<h2h3>/<sha256>.<ext>}. The key is the file name, so identical uploads are
+ * stored once and a stored file never changes, which lets it be served with an immutable cache
+ * lifetime. The format is taken from the file's magic bytes, not the declared content type.
+ * Resized variants live next to their original as {@code <sha256>_<variant>.<ext>}.
+ */
+@Slf4j
+@Component
+public class ImageStore {
+
+    public static final String URL_PREFIX = "/api/v1/images/";
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}(_[a-z]+)?\\.(jpg|png|gif|webp)");
+
+    private final Path root;
+    private final long maxBytes;
+
+    public ImageStore(@Value("${images.storage.dir:./data/images}") String dir,
+                      @Value("${images.max-size:10MB}") DataSize maxSize) throws IOException {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        this.maxBytes = maxSize.toBytes();
+        Files.createDirectories(root.resolve("tmp"));
+    }
+
+    /**
+     * Stores the stream and returns its key. The stream is not closed. An image over
+     * {@code images.max-size} fails with {@link MaxUploadSizeExceededException}, answered with 413.
+     */
+    public String store(InputStream in) throws IOException {
+        Path tmp = Files.createTempFile(root.resolve("tmp"), "upload-", ".part");
+        try {
+            MessageDigest sha256 = sha256();
+            byte[] head = new byte[12];
+            int headLength = 0;
+            long total = 0;
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                byte[] buffer = new byte[64 * 1024];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    total += n;
+                    if (total > maxBytes)
+                        throw new MaxUploadSizeExceededException(maxBytes);
+                    if (headLength < head.length) {
+                        int copied = Math.min(n, head.length - headLength);
+                        System.arraycopy(buffer, 0, head, headLength, copied);
+                        headLength += copied;
+                    }
+                    sha256.update(buffer, 0, n);
+                    out.write(buffer, 0, n);
+                }
+            }
+            String extension = sniffExtension(head, headLength);
+            if (extension == null)
+                throw new IllegalArgumentException("Unsupported image type; expected JPEG, PNG, GIF or WebP");
+
+            String key = HexFormat.of().formatHex(sha256.digest()) + "." + extension;
+            Path target = pathFor(key);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // A concurrent upload of the same bytes won the race; its file is identical.
+                }
+            }
+            return key;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Path of a stored image, or {@code IllegalArgumentException} if the key is malformed.
+     */
+    public Path resolve(String key) {
+        if (!isValidKey(key))
+            throw new IllegalArgumentException("Invalid image key");
+        return pathFor(key);
+    }
+
+    /**
+     * Writes a variant of {@code key} atomically and returns the variant's key.
+     */
+    public String storeVariant(String key, String variant, BufferedImage image) throws IOException {
+        String variantKey = variantKey(key, variant);
+        Path target = pathFor(variantKey);
+        Path tmp = Files.createTempFile(root.resolve("tmp"), "variant-", ".part");
+        try {
+            String format = variantKey.endsWith(".jpg") ? "jpg" : "png";
+            if (!ImageIO.write(image, format, tmp.toFile()))
+                throw new IOException("No ImageIO writer for " + format);
+            Files.createDirectories(target.getParent());
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return variantKey;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Variants are JPEG for JPEG originals and PNG for everything else.
+     */
+    public static String variantKey(String key, String variant) {
+        String hash = key.substring(0, key.indexOf('.'));
+        return hash + "_" + variant + (key.endsWith(".jpg") ? ".jpg" : ".png");
+    }
+
+    /**
+     * Variant name to URL for the comma-separated variants recorded on a product, or null if none.
+     */
+    public static Map<String, String> variantUrls(String key, String variants) {
+        if (key == null || variants == null || variants.isEmpty())
+            return null;
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String variant : variants.split(",")) {
+            urls.put(variant, urlFor(variantKey(key, variant)));
+        }
+        return urls;
+    }
+
+    public static boolean isValidKey(String key) {
+        return key != null && KEY.matcher(key).matches();
+    }
+
+    public static String urlFor(String key) {
+        return URL_PREFIX + key;
+    }
+
+    public static MediaType mediaType(String key) {
+        return switch (key.substring(key.lastIndexOf('.') + 1)) {
+            case "jpg" -> MediaType.IMAGE_JPEG;
+            case "png" -> MediaType.IMAGE_PNG;
+            case "gif" -> MediaType.IMAGE_GIF;
+            case "webp" -> MediaType.parseMediaType("image/webp");
+            default -> MediaType.APPLICATION_OCTET_STREAM;
+        };
+    }
+
+    private Path pathFor(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private static String sniffExtension(byte[] h, int n) {
+        if (n >= 3 && (h[0] & 0xFF) == 0xFF && (h[1] & 0xFF) == 0xD8 && (h[2] & 0xFF) == 0xFF)
+            return "jpg";
+        if (n >= 8 && (h[0] & 0xFF) == 0x89 && h[1] == 'P' && h[2] == 'N' && h[3] == 'G')
+            return "png";
+        if (n >= 6 && h[0] == 'G' && h[1] == 'I' && h[2] == 'F' && h[3] == '8')
+            return "gif";
+        if (n >= 12 && h[0] == 'R' && h[1] == 'I' && h[2] == 'F' && h[3] == 'F'
+                && h[8] == 'W' && h[9] == 'E' && h[10] == 'B' && h[11] == 'P')
+            return "webp";
+        return null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.monomart.image;
+
+import com.monomart.event.ProductImageStoredEvent;
+import com.monomart.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Generates fixed-size variants of uploaded product images in the background.
+ *
+ * Work is queued on a bounded executor once the upload has committed, so the upload request never
+ * waits on resizing; when the queue is full the image simply stays without variants. Each job is
+ * retried with exponential backoff, and on success the product records which variants exist so
+ * {@code ProductResponse} can link them. Scaling uses only {@code javax.imageio} and Java2D, which
+ * read JPEG, PNG and GIF (first frame) but not WebP. Images over a pixel cap are left without
+ * variants, since a decoded image takes four bytes per pixel whatever its file size.
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    /** Variant name to the maximum width/height in pixels; images are never upscaled. */
+    public static final Map<String, Integer> VARIANTS = variants();
+
+    private final ImageStore imageStore;
+    private final ProductService productService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxPixels;
+
+    public ImageVariantService(ImageStore imageStore,
+                               @Lazy ProductService productService,
+                               MeterRegistry meterRegistry,
+                               @Value("${images.variants.workers:2}") int workers,
+                               @Value("${images.variants.queue-capacity:256}") int queueCapacity,
+                               @Value("${images.variants.max-attempts:3}") int maxAttempts,
+                               @Value("${images.variants.backoff-ms:200}") long backoffMillis,
+                               @Value("${images.variants.max-pixels:40000000}") long maxPixels) {
+        this.imageStore = imageStore;
+        this.productService = productService;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxPixels = maxPixels;
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "image-variants-" + threadNo.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gauge("images.variants.queue", executor.getQueue(), q -> q.size());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onImageStored(ProductImageStoredEvent event) {
+        try {
+            executor.execute(() -> generate(event.getProductId(), event.getImageKey()));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("images.variants.rejected").increment();
+            log.warn("Image variant queue full, product {} keeps only its original image", event.getProductId());
+        }
+    }
+
+    private void generate(Long productId, String imageKey) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                List<String> created = resize(imageKey);
+                if (created.isEmpty())
+                    return;
+                productService.setImageVariants(productId, imageKey, created);
+                sample.stop(meterRegistry.timer("images.variants.generate", "result", "success"));
+                return;
+            } catch (IOException | RuntimeException e) {
+                sample.stop(meterRegistry.timer("images.variants.generate", "result", "failure"));
+                if (attempt == maxAttempts) {
+                    meterRegistry.counter("images.variants.failed").increment();
+                    log.warn("Giving up on variants for product {} image {} after {} attempts", productId, imageKey, attempt, e);
+                    return;
+                }
+                try {
+                    Thread.sleep(backoffMillis << (attempt - 1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<String> resize(String imageKey) throws IOException {
+        Path original = imageStore.resolve(imageKey);
+        BufferedImage source = read(original, imageKey);
+        if (source == null)
+            return List.of();
+        boolean opaque = imageKey.endsWith(".jpg");
+        List<String> created = new ArrayList<>(VARIANTS.size());
+        for (Map.Entry<String, Integer> v : VARIANTS.entrySet()) {
+            imageStore.storeVariant(imageKey, v.getKey(), scale(source, v.getValue(), opaque));
+            created.add(v.getKey());
+        }
+        return created;
+    }
+
+    /**
+     * Decodes the image, or returns null if no reader handles it or it has more than
+     * {@code max-pixels} pixels. The dimensions come from the header, so a small file that
+     * declares a huge canvas is skipped before any pixel buffer is allocated.
+     */
+    BufferedImage read(Path file, String imageKey) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                log.info("No ImageIO reader for {}, skipping variants", imageKey);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    meterRegistry.counter("images.variants.too_large").increment();
+                    log.warn("Image {} has {} pixels, over the {} limit, skipping variants", imageKey, pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves the image repeatedly before the final bilinear step, which avoids the aliasing of a
+    // single large downscale without pulling in an imaging library.
+    private static BufferedImage scale(BufferedImage source, int maxSize, boolean opaque) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(targetWidth, w / 2);
+            h = Math.max(targetHeight, h / 2);
+            BufferedImage next = new BufferedImage(w, h, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != targetWidth || h != targetHeight);
+        return current;
+    }
+
+    private static Map<String, Integer> variants() {
+        Map<String, Integer> variants = new LinkedHashMap<>();
+        variants.put("thumb", 160);
+        variants.put("small", 320);
+        variants.put("medium", 640);
+        return variants;
+    }
+}
@@ -22,6 +22,7 @@ public interface Mappers {
     CategoryDtos.CategoryResponse toCategoryResponse(Category category);
 
     @Mapping(target = "categoryId", source = "category.id")
+    @Mapping(target = "imageVariants", expression = "java(com.monomart.image.ImageStore.variantUrls(product.getImageKey(), product.getImageVariants()))")
     ProductDtos.ProductResponse toProductResponse(Product product);
 
     @Mapping(target = "id", source = "id")
@@ -2,8 +2,13 @@ package com.monomart.repository;
 
 import com.monomart.entities.Order;
 import com.monomart.entities.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.Optional;
@@ -12,6 +17,12 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @EntityGraph(attributePaths = { "address" })
     Page<Order> findByUserId(Long userId, Pageable pageable);
 
+    @EntityGraph(attributePaths = { "address" })
+    Window<Order> findByUserId(Long userId, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = { "address" })
+    Window<Order> findBy(ScrollPosition position, Sort sort, Limit limit);
+
     @EntityGraph(attributePaths = { "address" })
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
 
@@ -19,6 +30,9 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @EntityGraph(attributePaths = { "address" })
     Page<Order> findAll(Pageable pageable);
 
+    @EntityGraph(attributePaths = { "address" })
+    Slice<Order> findSliceBy(Pageable pageable);
+
     @Override
     @EntityGraph(attributePaths = { "address" })
     Optional<Order> findById(Long id);
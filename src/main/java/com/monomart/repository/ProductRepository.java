@@ -1,13 +1,135 @@
 package com.monomart.repository;
 
 import com.monomart.entities.Product;
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
     Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
-}
 
+    // Slice variants fetch size + 1 rows to detect a next page and skip the count(*) query.
+    Slice<Product> findSliceBy(Pageable pageable);
+    Slice<Product> findSliceByCategoryId(Long categoryId, Pageable pageable);
+    Slice<Product> findSliceByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    List<Product> findBySkuIn(Collection<String> skus);
+    Window<Product> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    interface IdAndName {
+        Long getId();
+        String getName();
+    }
+
+    List<IdAndName> findByIdGreaterThanOrderById(Long id, Limit limit);
+
+    interface FacetRow {
+        Long getId();
+        Long getCategoryId();
+        BigDecimal getPrice();
+        Integer getStockQuantity();
+    }
+
+    @Query("""
+            select p.id as id, p.category.id as categoryId, p.price as price, p.stockQuantity as stockQuantity
+            from Product p where p.id > :id order by p.id
+            """)
+    List<FacetRow> findFacetRows(@Param("id") Long id, Limit limit);
+
+    /**
+     * Products written after the {@code (changeXid, id)} position, in that order, by transactions
+     * older than every transaction still running: those have all finished, so no row can later
+     * appear behind the position returned. Backed by {@code idx_products_change_xid_id}.
+     */
+    @Query(value = """
+            SELECT p.* FROM products p
+            WHERE (p.change_xid, p.id) > (:xid, :id)
+              AND p.change_xid < CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)
+            ORDER BY p.change_xid, p.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Product> findChangedAfter(@Param("xid") long xid, @Param("id") long id, @Param("limit") int limit);
 
+    @Query("select p.id from Product p where p.stockStripes > 0 order by p.id")
+    List<Long> findHotSkuIds();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    interface StockLevel {
+        Long getId();
+        Integer getStockQuantity();
+    }
+
+    /**
+     * Decrements stock for every (product, quantity) pair in one statement. Rows are locked in id
+     * order to avoid deadlocks between concurrent checkouts, and a row is only decremented when it
+     * still holds enough stock, so concurrent reservations can never oversell. Hot SKUs are skipped
+     * here because their stock lives in {@code product_stock_stripes}.
+     *
+     * @return the products that were decremented with their new stock; any requested id missing from the result fell short
+     */
+    @Query(value = """
+            WITH requested AS (
+                SELECT * FROM unnest(CAST(:ids AS bigint[]), CAST(:quantities AS int[])) AS r(id, qty)
+            ), locked AS (
+                SELECT p.id FROM products p JOIN requested r ON r.id = p.id ORDER BY p.id FOR UPDATE OF p
+            )
+            UPDATE products p
+            SET stock_quantity = p.stock_quantity - r.qty, updated_at = NOW()
+            FROM requested r
+            WHERE p.id = r.id
+              AND p.id IN (SELECT id FROM locked)
+              AND p.stock_stripes = 0
+              AND p.stock_quantity >= r.qty
+            RETURNING p.id AS id, p.stock_quantity AS "stockQuantity"
+            """, nativeQuery = true)
+    List<StockLevel> decrementStock(@Param("ids") Long[] ids, @Param("quantities") Integer[] quantities);
+
+    /**
+     * Locks the regular (non-striped) products in the given users' carts, in id order.
+     */
+    @Query(value = """
+            SELECT p.id FROM products p
+            WHERE p.stock_stripes = 0
+              AND p.id IN (SELECT c.product_id FROM cart_items c WHERE c.user_id IN (:userIds))
+            ORDER BY p.id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Long> lockCartProducts(@Param("userIds") Collection<Long> userIds);
+
+    interface AvailableStock {
+        Long getId();
+        Integer getAvailable();
+    }
+
+    /**
+     * Stock each product can hand out right now, straight from the rows: {@code stock_quantity} for
+     * regular SKUs, the sum of the stripes for hot ones. Bypasses the session and second-level cache.
+     */
+    @Query(value = """
+            SELECT p.id AS id,
+                   CASE WHEN p.stock_stripes > 0
+                        THEN COALESCE((SELECT SUM(s.quantity) FROM product_stock_stripes s WHERE s.product_id = p.id), 0)
+                        ELSE p.stock_quantity END AS available
+            FROM products p
+            WHERE p.id IN (:ids)
+            """, nativeQuery = true)
+    List<AvailableStock> findAvailableStock(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,52 @@
+package com.monomart.repository;
+
+import com.monomart.entities.ProductStockStripe;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface ProductStockStripeRepository extends JpaRepository<ProductStockStripe, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ProductStockStripe> findByProductIdOrderByStripe(Long productId);
+
+    /**
+     * Takes {@code quantity} from a single stripe if it still holds enough stock.
+     *
+     * @return 1 if the stripe was decremented, 0 if it fell short
+     */
+    @Modifying
+    // Declares the touched table so Hibernate does not flush every second-level cache region on each call.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_stock_stripes"))
+    @Query(value = """
+            UPDATE product_stock_stripes
+            SET quantity = quantity - :quantity, updated_at = NOW()
+            WHERE product_id = :productId AND stripe = :stripe AND quantity >= :quantity
+            """, nativeQuery = true)
+    int decrementStripe(@Param("productId") Long productId, @Param("stripe") int stripe, @Param("quantity") int quantity);
+
+    /**
+     * Locks every stripe of the hot SKUs in the given users' carts, in (product, stripe) order.
+     */
+    @Query(value = """
+            SELECT s.id FROM product_stock_stripes s
+            WHERE s.product_id IN (SELECT c.product_id FROM cart_items c WHERE c.user_id IN (:userIds))
+            ORDER BY s.product_id, s.stripe
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Long> lockCartStripes(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Postgres transaction-scoped advisory lock; returns false at once if another session holds it.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+}
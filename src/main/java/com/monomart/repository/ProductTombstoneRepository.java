@@ -0,0 +1,23 @@
+package com.monomart.repository;
+
+import com.monomart.entities.ProductTombstone;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+    /**
+     * Tombstones after the {@code (changeXid, productId)} position; see
+     * {@link ProductRepository#findChangedAfter} for why only finished transactions are returned.
+     */
+    @Query(value = """
+            SELECT t.* FROM product_tombstones t
+            WHERE (t.change_xid, t.product_id) > (:xid, :id)
+              AND t.change_xid < CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)
+            ORDER BY t.change_xid, t.product_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ProductTombstone> findDeletedAfter(@Param("xid") long xid, @Param("id") long id, @Param("limit") int limit);
+}
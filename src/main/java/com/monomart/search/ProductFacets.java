@@ -0,0 +1,258 @@
+package com.monomart.search;
+
+import com.monomart.dto.product.ProductDtos;
+import com.monomart.entities.Product;
+import com.monomart.event.InvalidateAllEvent;
+import com.monomart.event.ProductChangedEvent;
+import com.monomart.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory facet counts for the product filter sidebar.
+ *
+ * Every product falls into one cell of (category, price bucket, in stock); the index keeps a count
+ * per cell and the cell of each product, so a {@link ProductChangedEvent} moves one product between
+ * two cells. A request sums the handful of cells that match its filters instead of running a
+ * {@code GROUP BY}. Checkout publishes stock-only events, so a product that sells out or comes
+ * back moves between the in-stock cells as soon as the order commits.
+ */
+@Slf4j
+@Component
+public class ProductFacets {
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final BigDecimal[] bucketBounds;
+    private final int rebuildPageSize;
+    private final SerialRebuild rebuilds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final Map<Cell, long[]> counts = new HashMap<>();
+    // Products changed while a rebuild is running; their rebuild snapshot may be stale and is skipped.
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public ProductFacets(ProductRepository productRepository,
+                         @Value("${products.facets.enabled:true}") boolean enabled,
+                         @Value("${products.facets.price-buckets:10,25,50,100,250,500}") BigDecimal[] bucketBounds,
+                         @Value("${search.index.rebuild-page-size:5000}") int rebuildPageSize) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.bucketBounds = bucketBounds.clone();
+        Arrays.sort(this.bucketBounds);
+        this.rebuildPageSize = rebuildPageSize;
+        this.rebuilds = new SerialRebuild("product-facets", this::build);
+    }
+
+    @EventListener({ ApplicationReadyEvent.class, InvalidateAllEvent.class })
+    void rebuildInBackground() {
+        if (enabled)
+            rebuilds.request();
+    }
+
+    @PreDestroy
+    void stop() {
+        rebuilds.shutdown();
+    }
+
+    /**
+     * Reloads every product on the caller's thread, after any rebuild already running.
+     */
+    public void rebuild() {
+        rebuilds.run();
+    }
+
+    private void build() {
+        long started = System.nanoTime();
+        Map<Long, Cell> fresh = new HashMap<>();
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            changedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long lastId = 0;
+            List<ProductRepository.FacetRow> page;
+            do {
+                page = productRepository.findFacetRows(lastId, Limit.of(rebuildPageSize));
+                for (ProductRepository.FacetRow row : page) {
+                    fresh.put(row.getId(), cell(row.getCategoryId(), row.getPrice(), row.getStockQuantity()));
+                    lastId = row.getId();
+                }
+            } while (page.size() == rebuildPageSize);
+        } catch (RuntimeException e) {
+            log.error("Product facet rebuild failed; keeping the previous counts", e);
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Keep what the event listener recorded for products that changed mid-rebuild.
+            for (Long id : changedDuringRebuild) {
+                Cell current = cells.get(id);
+                if (current != null)
+                    fresh.put(id, current);
+                else
+                    fresh.remove(id);
+            }
+            cells.clear();
+            counts.clear();
+            fresh.forEach(this::put);
+            rebuilding = false;
+            changedDuringRebuild.clear();
+            ready = true;
+            log.debug("Product facets built: {} products, {} cells in {} ms",
+                    cells.size(), counts.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onProductChanged(ProductChangedEvent event) {
+        if (!enabled)
+            return;
+        if (event.isStockOnly()) {
+            onStockChanged(event.getProductId(), event.getStockQuantity());
+            return;
+        }
+        Product product = event.getProduct();
+        Cell cell = event.isDeleted() ? null
+                : cell(product.getCategory().getId(), product.getPrice(), product.getStockQuantity());
+        lock.writeLock().lock();
+        try {
+            if (rebuilding)
+                changedDuringRebuild.add(event.getProductId());
+            remove(event.getProductId());
+            if (cell != null)
+                put(event.getProductId(), cell);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Checkout only moves stock, so the product keeps its category and price bucket.
+    private void onStockChanged(Long productId, int stockQuantity) {
+        lock.writeLock().lock();
+        try {
+            Cell current = cells.get(productId);
+            if (current == null)
+                return; // not counted yet; a running rebuild reads the row itself
+            if (rebuilding)
+                changedDuringRebuild.add(productId);
+            if (current.inStock() == stockQuantity > 0)
+                return;
+            remove(productId);
+            put(productId, new Cell(current.categoryId(), current.bucket(), stockQuantity > 0));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts for the given selection. Category counts disregard the selected categories, so each
+     * option shows how many products it would match on its own; totals and price buckets apply
+     * both filters. Returns {@code ready = false} and no counts until the first build finishes.
+     */
+    public ProductDtos.Facets facets(Collection<Long> categoryIds, boolean inStockOnly) {
+        if (!ready)
+            return ProductDtos.Facets.builder().ready(false).build();
+        Set<Long> selected = categoryIds == null ? Set.of() : new HashSet<>(categoryIds);
+        Map<Long, Long> byCategory = new TreeMap<>();
+        long[] byBucket = new long[bucketBounds.length + 1];
+        long total = 0;
+        long inStock = 0;
+
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Cell, long[]> e : counts.entrySet()) {
+                Cell c = e.getKey();
+                long n = e.getValue()[0];
+                boolean inCategory = selected.isEmpty() || selected.contains(c.categoryId());
+                if (inCategory && c.inStock())
+                    inStock += n;
+                if (inStockOnly && !c.inStock())
+                    continue;
+                byCategory.merge(c.categoryId(), n, Long::sum);
+                if (inCategory) {
+                    byBucket[c.bucket()] += n;
+                    total += n;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ProductDtos.CategoryFacet> categories = new ArrayList<>(byCategory.size());
+        byCategory.forEach((id, n) -> categories.add(ProductDtos.CategoryFacet.builder().categoryId(id).count(n).build()));
+        List<ProductDtos.PriceFacet> buckets = new ArrayList<>(byBucket.length);
+        for (int i = 0; i < byBucket.length; i++) {
+            buckets.add(ProductDtos.PriceFacet.builder()
+                    .min(i == 0 ? BigDecimal.ZERO : bucketBounds[i - 1])
+                    .max(i < bucketBounds.length ? bucketBounds[i] : null)
+                    .count(byBucket[i])
+                    .build());
+        }
+        return ProductDtos.Facets.builder()
+                .ready(true)
+                .total(total)
+                .inStock(inStock)
+                .categories(categories)
+                .priceBuckets(buckets)
+                .build();
+    }
+
+    private Cell cell(Long categoryId, BigDecimal price, Integer stockQuantity) {
+        int bucket = 0;
+        while (bucket < bucketBounds.length && price.compareTo(bucketBounds[bucket]) >= 0)
+            bucket++;
+        return new Cell(categoryId, bucket, stockQuantity != null && stockQuantity > 0);
+    }
+
+    // Callers hold the write lock.
+    private void put(Long productId, Cell cell) {
+        cells.put(productId, cell);
+        counts.computeIfAbsent(cell, k -> new long[1])[0]++;
+    }
+
+    private void remove(Long productId) {
+        Cell cell = cells.remove(productId);
+        if (cell == null)
+            return;
+        long[] n = counts.get(cell);
+        if (--n[0] == 0)
+            counts.remove(cell);
+    }
+
+    private record Cell(Long categoryId, int bucket, boolean inStock) {
+    }
+}
@@ -0,0 +1,316 @@
+package com.monomart.search;
+
+import com.monomart.entities.Product;
+import com.monomart.event.InvalidateAllEvent;
+import com.monomart.event.ProductChangedEvent;
+import com.monomart.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory inverted index over product name and description.
+ *
+ * Each term maps to a sorted {@code long[]} of product ids with a parallel {@code int[]} of
+ * weights (name hits count {@value #NAME_WEIGHT}, description hits 1). Queries are tokenized the
+ * same way; every query token must prefix-match a term of the product, and hits are ranked by
+ * summed weight. The index is rebuilt in the background at startup and kept current from
+ * {@link ProductChangedEvent}s; until the first rebuild finishes {@link #search} returns
+ * {@code null} and callers fall back to SQL.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    static final int NAME_WEIGHT = 3;
+    private static final int EXACT_TERM_BONUS = 2;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public record Hits(List<Long> ids, long total) {
+    }
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final int rebuildPageSize;
+    private final SerialRebuild rebuilds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Long, String[]> docTerms = new HashMap<>();
+    // Products changed while a rebuild is running; their rebuild snapshot may be stale and is skipped.
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              @Value("${search.index.enabled:true}") boolean enabled,
+                              @Value("${search.index.rebuild-page-size:5000}") int rebuildPageSize) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.rebuildPageSize = rebuildPageSize;
+        this.rebuilds = new SerialRebuild("product-search-index", this::build);
+    }
+
+    @EventListener({ ApplicationReadyEvent.class, InvalidateAllEvent.class })
+    void rebuildInBackground() {
+        if (enabled)
+            rebuilds.request();
+    }
+
+    @PreDestroy
+    void stop() {
+        rebuilds.shutdown();
+    }
+
+    /**
+     * Reloads every product on the caller's thread, after any rebuild already running.
+     */
+    public void rebuild() {
+        rebuilds.run();
+    }
+
+    // Pages are read sequentially by id and tokenized in parallel.
+    private void build() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            ready = false;
+            changedDuringRebuild.clear();
+            postings.clear();
+            docTerms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long count = 0;
+        try {
+            ScrollPosition position = ScrollPosition.keyset();
+            Window<Product> window;
+            do {
+                window = productRepository.findBy(position, Sort.by("id"), Limit.of(rebuildPageSize));
+                List<Document> docs = window.getContent().parallelStream().map(ProductSearchIndex::analyze).toList();
+                lock.writeLock().lock();
+                try {
+                    for (Document doc : docs) {
+                        if (!changedDuringRebuild.contains(doc.id()))
+                            put(doc);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                count += docs.size();
+                if (!window.isEmpty())
+                    position = window.positionAt(window.size() - 1);
+            } while (window.hasNext());
+        } catch (RuntimeException e) {
+            log.error("Product search index rebuild failed; searches keep using SQL", e);
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            rebuilding = false;
+            changedDuringRebuild.clear();
+            ready = true;
+            log.info("Product search index built: {} products, {} terms in {} ms",
+                    count, postings.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onProductChanged(ProductChangedEvent event) {
+        if (!enabled || event.isStockOnly())
+            return;
+        Document doc = event.isDeleted() ? null : analyze(event.getProduct());
+        lock.writeLock().lock();
+        try {
+            if (rebuilding)
+                changedDuringRebuild.add(event.getProductId());
+            remove(event.getProductId());
+            if (doc != null)
+                put(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns one page of product ids ordered by relevance (newest first on ties), or {@code null}
+     * if the index is not ready yet.
+     */
+    public Hits search(String query, long offset, int limit) {
+        if (!ready)
+            return null;
+        String[] tokens = tokenize(query).toArray(new String[0]);
+        if (tokens.length == 0)
+            return new Hits(List.of(), 0);
+
+        Map<Long, Score> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            if (!ready)
+                return null;
+            for (int i = 0; i < tokens.length; i++) {
+                if (i > 0 && scores.isEmpty())
+                    break;
+                String token = tokens[i];
+                for (Map.Entry<String, Postings> e : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+                    int bonus = e.getKey().length() == token.length() ? EXACT_TERM_BONUS : 1;
+                    Postings p = e.getValue();
+                    for (int j = 0; j < p.size; j++) {
+                        long id = p.ids[j];
+                        int weight = p.weights[j] * bonus;
+                        if (i == 0) {
+                            Score s = scores.computeIfAbsent(id, k -> new Score());
+                            s.matched = 1;
+                            s.value += weight;
+                        } else {
+                            Score s = scores.get(id);
+                            if (s == null || s.matched < i)
+                                continue;
+                            s.matched = i + 1;
+                            s.value += weight;
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int required = tokens.length;
+        long[][] ranked = scores.entrySet().stream()
+                .filter(e -> e.getValue().matched == required)
+                .map(e -> new long[] { e.getKey(), e.getValue().value })
+                .sorted((a, b) -> a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(b[0], a[0]))
+                .toArray(long[][]::new);
+        List<Long> page = new ArrayList<>(Math.min(limit, ranked.length));
+        for (long i = offset; i < ranked.length && page.size() < limit; i++) {
+            page.add(ranked[(int) i][0]);
+        }
+        return new Hits(page, ranked.length);
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null)
+            return tokens;
+        for (String t : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!t.isEmpty())
+                tokens.add(t);
+        }
+        return tokens;
+    }
+
+    private static Document analyze(Product product) {
+        Map<String, Integer> weights = new HashMap<>();
+        addTerms(weights, product.getName(), NAME_WEIGHT);
+        addTerms(weights, product.getDescription(), 1);
+        return new Document(product.getId(), weights);
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        if (text == null)
+            return;
+        for (String t : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!t.isEmpty())
+                weights.merge(t, weight, Integer::sum);
+        }
+    }
+
+    // Callers hold the write lock.
+    private void put(Document doc) {
+        String[] terms = doc.weights().keySet().toArray(new String[0]);
+        for (String term : terms) {
+            postings.computeIfAbsent(term, k -> new Postings()).put(doc.id(), doc.weights().get(term));
+        }
+        docTerms.put(doc.id(), terms);
+    }
+
+    private void remove(long id) {
+        String[] terms = docTerms.remove(id);
+        if (terms == null)
+            return;
+        for (String term : terms) {
+            Postings p = postings.get(term);
+            if (p != null && p.remove(id) && p.size == 0)
+                postings.remove(term);
+        }
+    }
+
+    private record Document(long id, Map<String, Integer> weights) {
+    }
+
+    private static final class Score {
+        int matched;
+        long value;
+    }
+
+    /** Sorted product ids with their term weights; appends are amortized O(1) since ids mostly grow. */
+    private static final class Postings {
+        long[] ids = new long[4];
+        int[] weights = new int[4];
+        int size;
+
+        void put(long id, int weight) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0) {
+                weights[i] = weight;
+                return;
+            }
+            i = -i - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(ids, i, ids, i + 1, size - i);
+            System.arraycopy(weights, i, weights, i + 1, size - i);
+            ids[i] = id;
+            weights[i] = weight;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i < 0)
+                return false;
+            System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+            System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+            size--;
+            return true;
+        }
+    }
+}
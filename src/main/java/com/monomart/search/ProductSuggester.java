@@ -0,0 +1,187 @@
+package com.monomart.search;
+
+import com.monomart.dto.product.ProductDtos;
+import com.monomart.event.InvalidateAllEvent;
+import com.monomart.event.ProductChangedEvent;
+import com.monomart.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Prefix autocomplete over product names.
+ *
+ * Every name is indexed under each of its word starts ("red office chair", "office chair",
+ * "chair") in a {@link SuggestTrie}, which answers a prefix with the ids of its top
+ * {@code search.suggest.top-k} products (newest first). Kept current from
+ * {@link ProductChangedEvent}s; once renames and deletes have left more dead text in the trie's
+ * buffer than live names, a background rebuild compacts it.
+ */
+@Slf4j
+@Component
+public class ProductSuggester {
+
+    private static final int MAX_KEY_LENGTH = 48;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Don't bother compacting below this many buffered characters.
+    private static final int MIN_COMPACT_CHARS = 1 << 20;
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final int topK;
+    private final int rebuildPageSize;
+    private final SerialRebuild rebuilds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private SuggestTrie trie;
+    private long liveChars;
+    private final Map<Long, String> names = new HashMap<>();
+    // Products changed while a rebuild is running; their rebuild snapshot may be stale and is skipped.
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+
+    public ProductSuggester(ProductRepository productRepository,
+                            @Value("${search.suggest.enabled:true}") boolean enabled,
+                            @Value("${search.suggest.top-k:10}") int topK,
+                            @Value("${search.index.rebuild-page-size:5000}") int rebuildPageSize) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.topK = topK;
+        this.rebuildPageSize = rebuildPageSize;
+        this.trie = new SuggestTrie(topK, MAX_KEY_LENGTH);
+        this.rebuilds = new SerialRebuild("product-suggester", this::build);
+    }
+
+    @EventListener({ ApplicationReadyEvent.class, InvalidateAllEvent.class })
+    void rebuildInBackground() {
+        if (enabled)
+            rebuilds.request();
+    }
+
+    @PreDestroy
+    void stop() {
+        rebuilds.shutdown();
+    }
+
+    /**
+     * Reloads every product on the caller's thread, after any rebuild already running.
+     */
+    public void rebuild() {
+        rebuilds.run();
+    }
+
+    private void build() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            changedDuringRebuild.clear();
+            trie = new SuggestTrie(topK, MAX_KEY_LENGTH);
+            liveChars = 0;
+            names.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long lastId = 0;
+        try {
+            List<ProductRepository.IdAndName> page;
+            do {
+                page = productRepository.findByIdGreaterThanOrderById(lastId, Limit.of(rebuildPageSize));
+                lock.writeLock().lock();
+                try {
+                    for (ProductRepository.IdAndName p : page) {
+                        if (!changedDuringRebuild.contains(p.getId()))
+                            add(p.getId(), p.getName());
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!page.isEmpty())
+                    lastId = page.get(page.size() - 1).getId();
+            } while (page.size() == rebuildPageSize);
+        } catch (RuntimeException e) {
+            log.error("Product suggester rebuild failed", e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                changedDuringRebuild.clear();
+                log.info("Product suggester built: {} products, {} trie nodes", names.size(), trie.nodeCount());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onProductChanged(ProductChangedEvent event) {
+        if (!enabled || event.isStockOnly())
+            return;
+        lock.writeLock().lock();
+        try {
+            if (rebuilding)
+                changedDuringRebuild.add(event.getProductId());
+            String previous = names.remove(event.getProductId());
+            if (previous != null)
+                remove(event.getProductId(), previous);
+            if (!event.isDeleted())
+                add(event.getProductId(), event.getProduct().getName());
+            if (!rebuilding && trie.textLength() > MIN_COMPACT_CHARS && trie.textLength() > 2 * liveChars)
+                rebuilds.request();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductDtos.Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix).stripLeading();
+        if (key.isEmpty())
+            return List.of();
+        lock.readLock().lock();
+        try {
+            long[] top = trie.top(key);
+            int n = Math.max(0, Math.min(limit, top.length));
+            List<ProductDtos.Suggestion> result = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                result.add(ProductDtos.Suggestion.builder().id(top[i]).name(names.get(top[i])).build());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        return WHITESPACE.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    // Callers hold the write lock.
+    private void add(long id, String name) {
+        if (name == null)
+            return;
+        names.put(id, name);
+        String normalized = normalize(name).strip();
+        trie.add(normalized, id);
+        liveChars += normalized.length();
+    }
+
+    private void remove(long id, String name) {
+        String normalized = normalize(name).strip();
+        trie.remove(normalized, id);
+        liveChars -= normalized.length();
+    }
+}
@@ -0,0 +1,50 @@
+package com.monomart.search;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs a read model's full rebuild one at a time. Background requests go to a single daemon thread
+ * and collapse while one is still waiting to start, so a burst of invalidations costs at most one
+ * extra pass; a synchronous {@link #run} waits for any rebuild in progress instead of overlapping it.
+ */
+final class SerialRebuild {
+
+    private final Runnable rebuild;
+    private final ReentrantLock running = new ReentrantLock();
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private final ExecutorService executor;
+
+    SerialRebuild(String threadName, Runnable rebuild) {
+        this.rebuild = rebuild;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    void run() {
+        running.lock();
+        try {
+            rebuild.run();
+        } finally {
+            running.unlock();
+        }
+    }
+
+    void request() {
+        if (queued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                queued.set(false);
+                run();
+            });
+        }
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,308 @@
+package com.monomart.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Path-compressed (radix) trie of suggestion keys for {@link ProductSuggester}.
+ *
+ * Each name is appended once to a shared {@code char[]}, and every key is a suffix of it that
+ * starts at a word ("red office chair", "office chair", "chair"), cut at the maximum key length.
+ * Edges carry their label as a range into that buffer, so a chain of single-child characters is
+ * one node. The ids of the newest {@code topK} products below a node are cached only on branching
+ * nodes; other nodes merge their own ids with their single child's list on lookup, a walk bounded
+ * by the key length. Text of removed names stays in the buffer until the owner rebuilds the trie.
+ * Not thread-safe.
+ */
+final class SuggestTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+
+    private final int topK;
+    private final int maxKeyLength;
+    private final Node root = new Node(0, 0);
+    private char[] text = new char[4096];
+    private int textLength;
+
+    SuggestTrie(int topK, int maxKeyLength) {
+        this.topK = topK;
+        this.maxKeyLength = maxKeyLength;
+    }
+
+    /**
+     * Adds {@code id} under every word start of {@code name}, which must already be normalized.
+     */
+    void add(String name, long id) {
+        int start = append(name);
+        for (int offset : wordStarts(name)) {
+            insert(start + offset, start + Math.min(name.length(), offset + maxKeyLength), id);
+        }
+    }
+
+    /**
+     * Removes {@code id} from the keys of {@code name}, as previously passed to {@link #add}.
+     */
+    void remove(String name, long id) {
+        for (int offset : wordStarts(name)) {
+            delete(name.substring(offset, Math.min(name.length(), offset + maxKeyLength)), id);
+        }
+    }
+
+    /**
+     * The newest ids under {@code prefix}, newest first.
+     */
+    long[] top(String prefix) {
+        if (prefix.length() > maxKeyLength)
+            prefix = prefix.substring(0, maxKeyLength);
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = child(node, prefix.charAt(i));
+            if (child == null)
+                return NO_IDS;
+            int wanted = Math.min(child.labelLength, prefix.length() - i);
+            if (matched(child, prefix, i) < wanted)
+                return NO_IDS;
+            i += wanted;
+            node = child;
+        }
+        return top(node);
+    }
+
+    int nodeCount() {
+        return count(root);
+    }
+
+    int textLength() {
+        return textLength;
+    }
+
+    private static List<Integer> wordStarts(String name) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != ' ' && (i == 0 || name.charAt(i - 1) == ' '))
+                starts.add(i);
+        }
+        return starts;
+    }
+
+    private int append(String name) {
+        if (textLength + name.length() > text.length)
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + name.length()));
+        name.getChars(0, name.length(), text, textLength);
+        int start = textLength;
+        textLength += name.length();
+        return start;
+    }
+
+    private void insert(int from, int to, long id) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = from;
+        while (i < to) {
+            int c = find(node, text[i]);
+            if (c < 0) {
+                Node leaf = new Node(i, to - i);
+                node.addChild(-c - 1, leaf);
+                if (node.children.length == 2)
+                    node.cached = merged(node);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[c];
+            int m = 0;
+            while (m < child.labelLength && i + m < to && text[child.labelStart + m] == text[i + m])
+                m++;
+            if (m < child.labelLength) {
+                Node mid = new Node(child.labelStart, m);
+                child.labelStart += m;
+                child.labelLength -= m;
+                mid.children = new Node[] { child };
+                node.children[c] = mid;
+                child = mid;
+            }
+            node = child;
+            path.add(node);
+            i += m;
+        }
+        node.here = insertSorted(node.here, id);
+        for (Node n : path) {
+            if (n.cached != null)
+                n.cached = offer(n.cached, id, topK);
+        }
+    }
+
+    private void delete(String key, long id) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = child(node, key.charAt(i));
+            if (child == null || child.labelLength > key.length() - i || matched(child, key, i) < child.labelLength)
+                return;
+            i += child.labelLength;
+            node = child;
+            path.add(node);
+        }
+        node.here = removeSorted(node.here, id);
+        for (int j = path.size() - 1; j >= 0; j--) {
+            Node n = path.get(j);
+            if (j > 0 && n.here.length == 0 && n.children.length == 0) {
+                path.get(j - 1).removeChild(n);
+                continue;
+            }
+            if (j > 0 && n.here.length == 0 && n.children.length == 1) {
+                Node only = n.children[0];
+                // Fold a pass-through node into its child when their labels are adjacent in the buffer.
+                if (only.labelStart == n.labelStart + n.labelLength) {
+                    only.labelStart = n.labelStart;
+                    only.labelLength += n.labelLength;
+                    Node parent = path.get(j - 1);
+                    parent.children[find(parent, text[only.labelStart])] = only;
+                    continue;
+                }
+            }
+            if (n.children.length < 2)
+                n.cached = null;
+            else if (n.cached == null || contains(n.cached, id))
+                n.cached = merged(n);
+        }
+    }
+
+    private long[] top(Node node) {
+        if (node.cached != null)
+            return node.cached;
+        long[] ids = node.children.length == 1 ? top(node.children[0]) : NO_IDS;
+        for (int i = node.here.length - 1; i >= 0 && i >= node.here.length - topK; i--)
+            ids = offer(ids, node.here[i], topK);
+        return ids;
+    }
+
+    private long[] merged(Node node) {
+        long[] ids = NO_IDS;
+        for (int i = node.here.length - 1; i >= 0 && i >= node.here.length - topK; i--)
+            ids = offer(ids, node.here[i], topK);
+        for (Node child : node.children) {
+            for (long id : top(child))
+                ids = offer(ids, id, topK);
+        }
+        return ids;
+    }
+
+    private Node child(Node node, char c) {
+        int i = find(node, c);
+        return i >= 0 ? node.children[i] : null;
+    }
+
+    // Binary search of the children by the first character of their label.
+    private int find(Node node, char c) {
+        int lo = 0;
+        int hi = node.children.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char first = text[node.children[mid].labelStart];
+            if (first < c)
+                lo = mid + 1;
+            else if (first > c)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    private int matched(Node node, String s, int from) {
+        int m = 0;
+        while (m < node.labelLength && from + m < s.length() && text[node.labelStart + m] == s.charAt(from + m))
+            m++;
+        return m;
+    }
+
+    private static int count(Node node) {
+        int n = 1;
+        for (Node child : node.children)
+            n += count(child);
+        return n;
+    }
+
+    private static long[] offer(long[] top, long id, int k) {
+        if (contains(top, id) || (top.length == k && id < top[k - 1]))
+            return top;
+        int i = 0;
+        while (i < top.length && top[i] > id)
+            i++;
+        long[] out = new long[Math.min(top.length + 1, k)];
+        System.arraycopy(top, 0, out, 0, i);
+        out[i] = id;
+        System.arraycopy(top, i, out, i + 1, out.length - i - 1);
+        return out;
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        for (long x : ids) {
+            if (x == id)
+                return true;
+        }
+        return false;
+    }
+
+    private static long[] insertSorted(long[] ids, long id) {
+        int i = Arrays.binarySearch(ids, id);
+        if (i >= 0)
+            return ids;
+        i = -i - 1;
+        long[] out = new long[ids.length + 1];
+        System.arraycopy(ids, 0, out, 0, i);
+        out[i] = id;
+        System.arraycopy(ids, i, out, i + 1, ids.length - i);
+        return out;
+    }
+
+    private static long[] removeSorted(long[] ids, long id) {
+        int i = Arrays.binarySearch(ids, id);
+        if (i < 0)
+            return ids;
+        if (ids.length == 1)
+            return NO_IDS;
+        long[] out = new long[ids.length - 1];
+        System.arraycopy(ids, 0, out, 0, i);
+        System.arraycopy(ids, i + 1, out, i, ids.length - i - 1);
+        return out;
+    }
+
+    private static final class Node {
+        int labelStart;
+        int labelLength;
+        Node[] children = NO_CHILDREN; // sorted by the first character of their label
+        long[] here = NO_IDS;          // products whose key ends at this node, ascending
+        long[] cached;                 // newest products in this subtree; only on branching nodes
+
+        Node(int labelStart, int labelLength) {
+            this.labelStart = labelStart;
+            this.labelLength = labelLength;
+        }
+
+        void addChild(int at, Node child) {
+            Node[] out = new Node[children.length + 1];
+            System.arraycopy(children, 0, out, 0, at);
+            out[at] = child;
+            System.arraycopy(children, at, out, at + 1, children.length - at);
+            children = out;
+        }
+
+        void removeChild(Node child) {
+            int at = Arrays.asList(children).indexOf(child);
+            if (at < 0)
+                return;
+            Node[] out = children.length == 1 ? NO_CHILDREN : new Node[children.length - 1];
+            System.arraycopy(children, 0, out, 0, at);
+            System.arraycopy(children, at + 1, out, at, children.length - at - 1);
+            children = out;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.monomart.security;
 
-import com.monomart.repository.UserRepository;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -21,11 +20,14 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenService jwtTokenService;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
 
-    public JwtAuthenticationFilter(JwtTokenService jwtTokenService, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtTokenService jwtTokenService, PrincipalCache principalCache,
+                                   TokenRevocationService tokenRevocationService) {
         this.jwtTokenService = jwtTokenService;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
@@ -36,24 +38,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = header.substring(7);
             try {
                 Claims claims = jwtTokenService.parseToken(token);
-                String username = claims.getSubject();
-                String role = claims.get("role", String.class);
-                Long userId = null;
-                Object uidClaim = claims.get("uid");
-                if (uidClaim instanceof Integer) userId = ((Integer) uidClaim).longValue();
-                if (uidClaim instanceof Long) userId = (Long) uidClaim;
-
-                final Long finalUserId = userId;
-                final String finalUsername = username;
-                userRepository.findByUsername(username).ifPresent(user -> {
-                    AuthenticatedUser principal = new AuthenticatedUser(finalUserId != null ? finalUserId : user.getId(), finalUsername, role);
+                // Resolved from memory; the role comes from the user's current record, not the token.
+                AuthenticatedUser principal = tokenRevocationService.isRevoked(claims) ? null : principalCache.resolve(claims);
+                if (principal != null) {
                     Authentication auth = new UsernamePasswordAuthenticationToken(
                             principal,
                             null,
-                            Collections.singletonList(new SimpleGrantedAuthority(role))
+                            Collections.singletonList(new SimpleGrantedAuthority(principal.getRole()))
                     );
                     SecurityContextHolder.getContext().setAuthentication(auth);
-                });
+                }
             } catch (Exception ignored) {
                 // Token invalid or expired — proceed without authentication.
             }
@@ -62,5 +56,3 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 }
-
-
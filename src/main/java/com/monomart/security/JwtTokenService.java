@@ -1,18 +1,37 @@
 package com.monomart.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Issues and verifies HS256 tokens.
+ *
+ * Verification uses one prebuilt (immutable, thread-safe) parser. Successfully verified tokens
+ * are remembered by their SHA-256 until they expire, so the repeated calls of a session skip the
+ * Base64, JSON and HMAC work; the cache holds token hashes, never the tokens themselves.
+ */
 @Component
 public class JwtTokenService {
 
@@ -20,22 +39,52 @@ public class JwtTokenService {
     private final String issuer;
     private final long accessTokenExpirationMinutes;
     private final long refreshTokenExpirationDays;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verified;
 
     public JwtTokenService(
             @Value("${security.jwt.secret}") String secret,
             @Value("${security.jwt.issuer}") String issuer,
             @Value("${security.jwt.access-token-expiration-minutes}") long accessTokenExpirationMinutes,
-            @Value("${security.jwt.refresh-token-expiration-days}") long refreshTokenExpirationDays) {
+            @Value("${security.jwt.refresh-token-expiration-days}") long refreshTokenExpirationDays,
+            @Value("${security.jwt.verified-cache.max-size:10000}") long verifiedCacheSize,
+            MeterRegistry meterRegistry) {
         byte[] keyBytes = Decoders.BASE64.decode(ensureBase64(secret));
         this.signingKey = Keys.hmacShaKeyFor(keyBytes);
         this.issuer = issuer;
         this.accessTokenExpirationMinutes = accessTokenExpirationMinutes;
         this.refreshTokenExpirationDays = refreshTokenExpirationDays;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .requireIssuer(issuer)
+                .build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String hash, Claims claims, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String hash, Claims claims, long currentTime, long currentDuration) {
+                        return expireAfterCreate(hash, claims, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String hash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
     }
 
     public String generateAccessToken(String subject, Map<String, Object> claims) {
         Instant now = Instant.now();
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setIssuer(issuer)
                 .setSubject(subject)
                 .addClaims(claims)
@@ -48,6 +97,7 @@ public class JwtTokenService {
     public String generateRefreshToken(String subject, Map<String, Object> claims) {
         Instant now = Instant.now();
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setIssuer(issuer)
                 .setSubject(subject)
                 .addClaims(claims)
@@ -57,13 +107,28 @@ public class JwtTokenService {
                 .compact();
     }
 
+    /**
+     * Verifies the token and returns its claims, which callers must treat as read-only since
+     * they are shared with later calls for the same token.
+     */
     public Claims parseToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .requireIssuer(issuer)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String hash = sha256(token);
+        Claims claims = verified.getIfPresent(hash);
+        if (claims != null && claims.getExpiration().after(new Date()))
+            return claims;
+        claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null)
+            verified.put(hash, claims);
+        return claims;
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     private String ensureBase64(String maybeRaw) {
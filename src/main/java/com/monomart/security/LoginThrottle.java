@@ -0,0 +1,133 @@
+package com.monomart.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.monomart.exception.RetryLaterException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adaptive login throttle per client IP and per account.
+ *
+ * Each key gets a number of free failed attempts; after that every further attempt must wait a
+ * delay that doubles with each failure, up to a cap. Three keys are counted:
+ * <ul>
+ * <li>the client IP, with more free failures since many users may share one address;</li>
+ * <li>the account from that IP, with few free failures, so one client guessing a password is
+ * slowed down without locking the owner out from elsewhere;</li>
+ * <li>the account from anywhere, with a much higher threshold, to slow down guessing spread
+ * across many addresses.</li>
+ * </ul>
+ * Existing accounts are keyed by user id, so the username and the email of one account share a
+ * counter; names that match no account are keyed by the normalized login and throttled exactly
+ * the same way, so a 429 never tells which names exist. A successful login clears the account's
+ * counter for that IP. Counters are forgotten after the window passes without failures.
+ * The IP is checked before the account is looked up and the account before hashing, so throttled
+ * attempts never cost a BCrypt round.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Cache<String, Failures> failures;
+    private final MeterRegistry meterRegistry;
+    private final int accountFreeFailures;
+    private final int accountGlobalFreeFailures;
+    private final int ipFreeFailures;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${security.login-throttle.account-free-failures:5}") int accountFreeFailures,
+                         @Value("${security.login-throttle.account-global-free-failures:100}") int accountGlobalFreeFailures,
+                         @Value("${security.login-throttle.ip-free-failures:20}") int ipFreeFailures,
+                         @Value("${security.login-throttle.base-delay:1s}") Duration baseDelay,
+                         @Value("${security.login-throttle.max-delay:15m}") Duration maxDelay,
+                         @Value("${security.login-throttle.window:15m}") Duration window,
+                         @Value("${security.login-throttle.max-entries:100000}") long maxEntries) {
+        this.meterRegistry = meterRegistry;
+        this.accountFreeFailures = accountFreeFailures;
+        this.accountGlobalFreeFailures = accountGlobalFreeFailures;
+        this.ipFreeFailures = ipFreeFailures;
+        this.baseDelayMillis = baseDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+        this.failures = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Throws a 429 {@link RetryLaterException} if the IP must still wait.
+     */
+    public void checkIp(String ip) {
+        throwIfWaiting("ip", waitMillis(ipKey(ip), ipFreeFailures, System.currentTimeMillis()));
+    }
+
+    /**
+     * Throws a 429 {@link RetryLaterException} if the account must still wait, either from this IP
+     * or globally.
+     */
+    public void checkAccount(String account, String ip) {
+        long now = System.currentTimeMillis();
+        long fromIp = waitMillis(accountKey(account, ip), accountFreeFailures, now);
+        long global = waitMillis(accountKey(account), accountGlobalFreeFailures, now);
+        throwIfWaiting(fromIp >= global ? "account" : "account_global", Math.max(fromIp, global));
+    }
+
+    public void recordFailure(String account, String ip) {
+        increment(ipKey(ip));
+        increment(accountKey(account, ip));
+        increment(accountKey(account));
+    }
+
+    public void recordSuccess(String account, String ip) {
+        failures.invalidate(accountKey(account, ip));
+    }
+
+    /**
+     * The account a login attempt counts against: the user id if {@code userId} is set, otherwise
+     * the login as typed, trimmed and lower-cased.
+     */
+    public static String account(Long userId, String login) {
+        return userId != null ? "id:" + userId : "login:" + login.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void throwIfWaiting(String scope, long waitMillis) {
+        if (waitMillis <= 0)
+            return;
+        meterRegistry.counter("security.login.throttled", "scope", scope).increment();
+        throw RetryLaterException.throttled("Too many failed login attempts", (waitMillis + 999) / 1000);
+    }
+
+    private void increment(String key) {
+        long now = System.currentTimeMillis();
+        failures.asMap().compute(key, (k, f) -> f == null ? new Failures(1, now) : new Failures(f.count() + 1, now));
+    }
+
+    private long waitMillis(String key, int freeFailures, long now) {
+        Failures f = failures.getIfPresent(key);
+        if (f == null || f.count() < freeFailures)
+            return 0;
+        int doublings = Math.min(f.count() - freeFailures, 30);
+        long delay = Math.min(maxDelayMillis, baseDelayMillis << doublings);
+        return f.lastFailureMillis() + delay - now;
+    }
+
+    private static String ipKey(String ip) {
+        return "ip:" + ip;
+    }
+
+    private static String accountKey(String account) {
+        return "account:" + account;
+    }
+
+    private static String accountKey(String account, String ip) {
+        return "account:" + account + "@" + ip;
+    }
+
+    private record Failures(int count, long lastFailureMillis) {
+    }
+}
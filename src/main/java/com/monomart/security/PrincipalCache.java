@@ -0,0 +1,86 @@
+package com.monomart.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.monomart.event.InvalidateAllEvent;
+import com.monomart.event.UserChangedEvent;
+import com.monomart.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Resolves the principal for a verified access token without a query per request.
+ *
+ * The current id, role and token version of each user are cached by username for a short TTL
+ * (unknown usernames too, so tokens of deleted accounts cannot hammer the database). The role is
+ * taken from the cache rather than the token, and a token whose {@code ver} claim is older than the
+ * user's token version is rejected. {@link UserChangedEvent}s, local or replayed from other nodes,
+ * evict the user at once, so role changes and revocations apply without waiting for the TTL.
+ */
+@Component
+public class PrincipalCache {
+
+    record CachedUser(Long id, String username, String role, int tokenVersion) {
+    }
+
+    private final UserRepository userRepository;
+    private final Cache<String, Optional<CachedUser>> users;
+
+    public PrincipalCache(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.ttl:30s}") Duration ttl,
+                          @Value("${security.principal-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "principals");
+    }
+
+    /**
+     * Returns the principal for already verified claims, or {@code null} if the user no longer
+     * exists, the {@code uid} claim does not match, or the token predates a revocation.
+     */
+    public AuthenticatedUser resolve(Claims claims) {
+        String username = claims.getSubject();
+        if (username == null)
+            return null;
+        CachedUser user = users.get(username, this::load).orElse(null);
+        if (user == null)
+            return null;
+        Number uid = claims.get("uid", Number.class);
+        if (uid != null && uid.longValue() != user.id())
+            return null;
+        Number ver = claims.get("ver", Number.class);
+        if ((ver != null ? ver.intValue() : 0) < user.tokenVersion())
+            return null;
+        return new AuthenticatedUser(user.id(), user.username(), user.role());
+    }
+
+    private Optional<CachedUser> load(String username) {
+        return userRepository.findByUsername(username)
+                .map(u -> new CachedUser(u.getId(), u.getUsername(), u.getRole().name(), u.getTokenVersion()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onUserChanged(UserChangedEvent event) {
+        if (event.getUsername() != null)
+            users.invalidate(event.getUsername());
+        else
+            users.asMap().values().removeIf(u -> u.isPresent() && u.get().id().equals(event.getUserId()));
+    }
+
+    @EventListener(InvalidateAllEvent.class)
+    void onInvalidateAll() {
+        users.invalidateAll();
+    }
+}
@@ -0,0 +1,124 @@
+package com.monomart.security;
+
+import com.monomart.entities.RevokedToken;
+import com.monomart.event.InvalidateAllEvent;
+import com.monomart.event.TokenRevokedEvent;
+import com.monomart.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Revokes individual tokens by their {@code jti}.
+ *
+ * Revocations are stored in {@code revoked_tokens} and mirrored on every node in a Bloom filter
+ * backed by an exact set. A lookup for a token that was never revoked almost always ends at the
+ * Bloom filter; the exact set settles the rest, so checks never touch the database. New
+ * revocations reach other nodes through {@link TokenRevokedEvent}s on the cluster invalidation
+ * bus, and every {@code security.revocation.refresh-ms} the node reloads the table, which also
+ * drops expired entries that a Bloom filter cannot remove.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final ApplicationEventPublisher events;
+    private final MeterRegistry meterRegistry;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+
+    private volatile Revocations current;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  ApplicationEventPublisher events,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.revocation.expected-entries:100000}") long expectedEntries,
+                                  @Value("${security.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.events = events;
+        this.meterRegistry = meterRegistry;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = new Revocations(new BloomFilter(expectedEntries, falsePositiveRate), new ConcurrentHashMap<>());
+        meterRegistry.gauge("security.revocation.entries", this, s -> s.current.exact().size());
+    }
+
+    /**
+     * Whether the token's {@code jti} has been revoked. Tokens issued without one cannot be revoked.
+     */
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null)
+            return false;
+        Revocations r = current;
+        if (!r.bloom().mightContain(jti))
+            return false;
+        boolean revoked = r.exact().containsKey(jti);
+        if (!revoked)
+            meterRegistry.counter("security.revocation.false_positives").increment();
+        return revoked;
+    }
+
+    @Transactional
+    public void revoke(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null || claims.getExpiration() == null)
+            return;
+        Instant expiresAt = claims.getExpiration().toInstant();
+        if (!revokedTokenRepository.existsById(jti))
+            revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+        events.publishEvent(TokenRevokedEvent.revoked(jti, expiresAt));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onTokenRevoked(TokenRevokedEvent event) {
+        add(event.getJti(), event.getExpiresAt());
+        meterRegistry.counter("security.revocation.revoked", "source", event.isRemote() ? "remote" : "local").increment();
+    }
+
+    @EventListener({ ApplicationReadyEvent.class, InvalidateAllEvent.class })
+    @Scheduled(initialDelayString = "${security.revocation.refresh-ms:600000}", fixedDelayString = "${security.revocation.refresh-ms:600000}")
+    @Transactional
+    public void reload() {
+        Instant now = Instant.now();
+        int purged = revokedTokenRepository.deleteExpired(now);
+        Revocations fresh = new Revocations(new BloomFilter(expectedEntries, falsePositiveRate), new ConcurrentHashMap<>());
+        for (RevokedToken t : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            addTo(fresh, t.getJti(), t.getExpiresAt());
+        }
+        synchronized (this) {
+            // Keep revocations that arrived while the table was being read.
+            current.exact().forEach((jti, expiresAt) -> {
+                if (expiresAt.isAfter(now))
+                    addTo(fresh, jti, expiresAt);
+            });
+            current = fresh;
+        }
+        log.debug("Loaded {} token revocations, purged {} expired", fresh.exact().size(), purged);
+    }
+
+    // Synchronized with the swap in reload() so a revocation cannot land in a discarded set.
+    private synchronized void add(String jti, Instant expiresAt) {
+        addTo(current, jti, expiresAt);
+    }
+
+    private static void addTo(Revocations target, String jti, Instant expiresAt) {
+        target.exact().put(jti, expiresAt);
+        target.bloom().put(jti);
+    }
+
+    private record Revocations(BloomFilter bloom, Map<String, Instant> exact) {
+    }
+}
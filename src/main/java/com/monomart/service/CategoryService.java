@@ -1,11 +1,19 @@
 package com.monomart.service;
 
+import com.monomart.cache.CacheNames;
+import com.monomart.cache.SingleFlight;
 import com.monomart.entities.Category;
 import com.monomart.dto.category.CategoryDtos;
+import com.monomart.event.CategoryChangedEvent;
 import com.monomart.mapper.Mappers;
 import com.monomart.repository.CategoryRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,10 +21,15 @@ import org.springframework.transaction.annotation.Transactional;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher events;
+    private final SingleFlight singleFlight;
     private final Mappers mappers;
 
-    public CategoryService(CategoryRepository categoryRepository, Mappers mappers) {
+    public CategoryService(CategoryRepository categoryRepository, ApplicationEventPublisher events,
+                           SingleFlight singleFlight, Mappers mappers) {
         this.categoryRepository = categoryRepository;
+        this.events = events;
+        this.singleFlight = singleFlight;
         this.mappers = mappers;
     }
 
@@ -25,29 +38,46 @@ public class CategoryService {
         if (categoryRepository.existsByNameIgnoreCase(request.getName()))
             throw new IllegalArgumentException("Category name already exists");
         Category category = mappers.toCategory(request);
-        return categoryRepository.save(category);
+        return saved(categoryRepository.save(category));
     }
 
+    @Cacheable(CacheNames.CATEGORY_PAGES)
     public Page<Category> list(Pageable pageable) {
-        return categoryRepository.findAll(pageable);
+        return singleFlight.execute("categories.list", pageable, () -> categoryRepository.findAll(pageable));
     }
 
+    public Window<Category> scroll(String cursor, int size) {
+        return categoryRepository.findBy(KeysetCursor.decode(cursor),
+                Sort.by("name", "id"), Limit.of(KeysetCursor.clampSize(size)));
+    }
+
+    @Cacheable(CacheNames.CATEGORIES)
     public Category get(Long id) {
+        return singleFlight.execute("categories.get", id, () -> load(id));
+    }
+
+    private Category load(Long id) {
         return categoryRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Category not found"));
     }
 
     @Transactional
     public Category update(Long id, CategoryDtos.UpdateCategoryRequest request) {
-        Category category = get(id);
+        Category category = load(id);
         if (!category.getName().equalsIgnoreCase(request.getName()) && categoryRepository.existsByNameIgnoreCase(request.getName()))
             throw new IllegalArgumentException("Category name already exists");
         mappers.updateCategoryFromDto(request, category);
-        return categoryRepository.save(category);
+        return saved(categoryRepository.save(category));
     }
 
     @Transactional
     public void delete(Long id) {
         categoryRepository.deleteById(id);
+        events.publishEvent(CategoryChangedEvent.deleted(id));
+    }
+
+    private Category saved(Category category) {
+        events.publishEvent(CategoryChangedEvent.saved(category));
+        return category;
     }
 }
 
@@ -0,0 +1,283 @@
+package com.monomart.service;
+
+import com.monomart.entities.CartItem;
+import com.monomart.entities.Product;
+import com.monomart.entities.ProductStockStripe;
+import com.monomart.event.ProductChangedEvent;
+import com.monomart.exception.InsufficientStockException;
+import com.monomart.repository.ProductRepository;
+import com.monomart.repository.ProductStockStripeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Owns stock reservation for checkout.
+ *
+ * Regular SKUs are reserved with one conditional decrement on {@code products}. Hot SKUs keep their
+ * available stock split across {@code product_stock_stripes} rows so concurrent checkouts land on
+ * different rows instead of queueing on the single product row; {@code products.stock_quantity}
+ * is then a snapshot that {@link #foldStripes()} refreshes periodically.
+ *
+ * Both paths publish a {@link ProductChangedEvent} when {@code products.stock_quantity} moves, so
+ * the product cache, facet counts and other nodes see checkout stock like any other product edit.
+ */
+@Slf4j
+@Service
+public class InventoryService {
+
+    // Advisory lock key that lets only one node fold stripes per tick.
+    private static final long FOLD_LOCK_KEY = 0x6d6d_666f_6c64L;
+
+    private final ProductRepository productRepository;
+    private final ProductStockStripeRepository stripeRepository;
+    private final MeterRegistry meterRegistry;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher events;
+    private final int defaultStripes;
+    private final boolean postgres;
+
+    public InventoryService(ProductRepository productRepository,
+                            ProductStockStripeRepository stripeRepository,
+                            MeterRegistry meterRegistry,
+                            EntityManagerFactory entityManagerFactory,
+                            DataSourceProperties dataSourceProperties,
+                            ApplicationEventPublisher events,
+                            @Value("${inventory.hot-sku.default-stripes:8}") int defaultStripes) {
+        this.productRepository = productRepository;
+        this.stripeRepository = stripeRepository;
+        this.meterRegistry = meterRegistry;
+        this.entityManagerFactory = entityManagerFactory;
+        this.events = events;
+        this.defaultStripes = defaultStripes;
+        this.postgres = dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:");
+    }
+
+    /**
+     * Reserves stock for all cart lines. Either every line is reserved or an
+     * {@link InsufficientStockException} listing the SKUs that fell short rolls back the caller's transaction.
+     *
+     * Locks are always taken in the same global order: regular product rows in id order (one
+     * statement), then hot-SKU stripes in product id order.
+     */
+    @Transactional
+    public void reserve(List<CartItem> cartItems) {
+        List<CartItem> regular = new ArrayList<>();
+        List<CartItem> hot = new ArrayList<>();
+        for (CartItem ci : cartItems) {
+            if (ci.getProduct().getStockStripes() > 0)
+                hot.add(ci);
+            else
+                regular.add(ci);
+        }
+
+        List<String> shortSkus = new ArrayList<>();
+        if (!regular.isEmpty()) {
+            Long[] productIds = new Long[regular.size()];
+            Integer[] quantities = new Integer[regular.size()];
+            for (int i = 0; i < regular.size(); i++) {
+                productIds[i] = regular.get(i).getProduct().getId();
+                quantities[i] = regular.get(i).getQuantity();
+            }
+            Set<Long> reserved = new HashSet<>();
+            for (ProductRepository.StockLevel level : productRepository.decrementStock(productIds, quantities)) {
+                reserved.add(level.getId());
+                events.publishEvent(ProductChangedEvent.stockChanged(level.getId(), level.getStockQuantity()));
+            }
+            evictAfterCommit(reserved);
+            for (CartItem ci : regular) {
+                if (!reserved.contains(ci.getProduct().getId()))
+                    shortSkus.add(ci.getProduct().getSku());
+            }
+        }
+
+        hot.sort(Comparator.comparing(ci -> ci.getProduct().getId()));
+        for (CartItem ci : hot) {
+            if (!reserveFromStripes(ci.getProduct(), ci.getQuantity()))
+                shortSkus.add(ci.getProduct().getSku());
+        }
+
+        if (!shortSkus.isEmpty())
+            throw new InsufficientStockException(shortSkus);
+    }
+
+    /**
+     * Locks every stock row the given users' carts can touch, in the order {@link #reserve} takes
+     * them. A group commit calls this once up front, so reserving its orders one after another
+     * never acquires a lock out of order and cannot deadlock with single checkouts or other batches.
+     */
+    @Transactional
+    public void lockCarts(Collection<Long> userIds) {
+        if (userIds.isEmpty())
+            return;
+        productRepository.lockCartProducts(userIds);
+        stripeRepository.lockCartStripes(userIds);
+    }
+
+    /**
+     * SKUs of the cart lines that current stock cannot cover. Only conclusive while the caller holds
+     * the rows locked (see {@link #lockCarts}); a group commit checks each order with this before
+     * calling {@link #reserve}, so a rejected order never writes anything.
+     */
+    public List<String> shortfall(List<CartItem> cartItems) {
+        Map<Long, Integer> available = new HashMap<>();
+        for (ProductRepository.AvailableStock row : productRepository.findAvailableStock(
+                cartItems.stream().map(ci -> ci.getProduct().getId()).toList()))
+            available.put(row.getId(), row.getAvailable());
+        List<String> shortSkus = new ArrayList<>();
+        for (CartItem ci : cartItems) {
+            if (available.getOrDefault(ci.getProduct().getId(), 0) < ci.getQuantity())
+                shortSkus.add(ci.getProduct().getSku());
+        }
+        return shortSkus;
+    }
+
+    // decrementStock bypasses Hibernate, so the second-level cache would keep serving the old stock.
+    private void evictAfterCommit(Set<Long> productIds) {
+        if (productIds.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productIds.forEach(id -> entityManagerFactory.getCache().evict(Product.class, id));
+            }
+        });
+    }
+
+    private boolean reserveFromStripes(Product product, int quantity) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            int stripes = product.getStockStripes();
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            for (int i = 0; i < stripes; i++) {
+                if (stripeRepository.decrementStripe(product.getId(), (start + i) % stripes, quantity) == 1)
+                    return true;
+                meterRegistry.counter("inventory.hot_sku.stripe_misses", "sku", product.getSku()).increment();
+            }
+            // No single stripe can cover the line; drain across all stripes under lock.
+            return drainStripes(product.getId(), quantity);
+        } finally {
+            sample.stop(meterRegistry.timer("inventory.hot_sku.reserve", "sku", product.getSku()));
+        }
+    }
+
+    private boolean drainStripes(Long productId, int quantity) {
+        List<ProductStockStripe> stripes = stripeRepository.findByProductIdOrderByStripe(productId);
+        int available = stripes.stream().mapToInt(ProductStockStripe::getQuantity).sum();
+        if (available < quantity)
+            return false;
+        int remaining = quantity;
+        for (ProductStockStripe s : stripes) {
+            int taken = Math.min(s.getQuantity(), remaining);
+            s.setQuantity(s.getQuantity() - taken);
+            remaining -= taken;
+        }
+        stripeRepository.saveAll(stripes);
+        return true;
+    }
+
+    @Transactional
+    public Product enableHotSku(Long productId, Integer stripes) {
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+        if (product.getStockStripes() > 0)
+            return product;
+
+        int n = stripes != null ? stripes : defaultStripes;
+        List<ProductStockStripe> rows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ProductStockStripe s = new ProductStockStripe();
+            s.setProduct(product);
+            s.setStripe(i);
+            rows.add(s);
+        }
+        distribute(rows, product.getStockQuantity());
+        stripeRepository.saveAll(rows);
+
+        product.setStockStripes(n);
+        log.info("Product {} switched to hot SKU mode with {} stripes", product.getSku(), n);
+        return productRepository.save(product);
+    }
+
+    @Transactional
+    public Product disableHotSku(Long productId) {
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+        if (product.getStockStripes() == 0)
+            return product;
+
+        List<ProductStockStripe> stripes = stripeRepository.findByProductIdOrderByStripe(productId);
+        product.setStockQuantity(stripes.stream().mapToInt(ProductStockStripe::getQuantity).sum());
+        product.setStockStripes(0);
+        stripeRepository.deleteAll(stripes);
+        log.info("Product {} switched back to regular stock mode", product.getSku());
+        return productRepository.save(product);
+    }
+
+    /**
+     * Replaces the available stock of a hot SKU, e.g. when an admin restocks it.
+     */
+    @Transactional
+    public void resetHotStock(Product product, int quantity) {
+        productRepository.findByIdForUpdate(product.getId());
+        List<ProductStockStripe> stripes = stripeRepository.findByProductIdOrderByStripe(product.getId());
+        distribute(stripes, quantity);
+        stripeRepository.saveAll(stripes);
+        product.setStockQuantity(quantity);
+    }
+
+    /**
+     * Folds stripe totals back into {@code products.stock_quantity} and rebalances the stripes so a
+     * drained stripe does not keep sending checkouts down the slow path. Every node schedules this,
+     * but only the node that wins the advisory lock folds in a given tick; the others skip it
+     * rather than queue on the same hot rows.
+     */
+    @Scheduled(fixedDelayString = "${inventory.hot-sku.fold-interval-ms:5000}")
+    @Transactional
+    public void foldStripes() {
+        if (postgres && !stripeRepository.tryAdvisoryXactLock(FOLD_LOCK_KEY)) {
+            meterRegistry.counter("inventory.hot_sku.fold_skipped").increment();
+            return;
+        }
+        for (Long productId : productRepository.findHotSkuIds()) {
+            Product product = productRepository.findByIdForUpdate(productId).orElse(null);
+            if (product == null || product.getStockStripes() == 0)
+                continue;
+            List<ProductStockStripe> stripes = stripeRepository.findByProductIdOrderByStripe(productId);
+            int total = stripes.stream().mapToInt(ProductStockStripe::getQuantity).sum();
+            distribute(stripes, total);
+            stripeRepository.saveAll(stripes);
+            if (Integer.valueOf(total).equals(product.getStockQuantity()))
+                continue;
+            product.setStockQuantity(total);
+            events.publishEvent(ProductChangedEvent.saved(productRepository.save(product)));
+        }
+    }
+
+    private void distribute(List<ProductStockStripe> stripes, int total) {
+        int n = stripes.size();
+        if (n == 0)
+            return;
+        for (int i = 0; i < n; i++) {
+            stripes.get(i).setQuantity(total / n + (i < total % n ? 1 : 0));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.monomart.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+/**
+ * Encodes keyset scroll positions as opaque, URL-safe cursors and back.
+ *
+ * A cursor carries the sort-key values of the last row of a slice, e.g. {@code (createdAt, id)}.
+ */
+public final class KeysetCursor {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Map<String, Function<String, Object>> KEY_PARSERS = Map.of(
+            "id", Long::valueOf,
+            "createdAt", Instant::parse,
+            "updatedAt", Instant::parse,
+            "name", value -> value,
+            "xid", Long::valueOf);
+
+    private KeysetCursor() {
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    public static <T> String next(Window<T> window) {
+        if (!window.hasNext() || window.isEmpty())
+            return null;
+        return encode((KeysetScrollPosition) window.positionAt(window.size() - 1));
+    }
+
+    public static String encode(KeysetScrollPosition position) {
+        StringBuilder sb = new StringBuilder();
+        position.getKeys().forEach((key, value) -> {
+            if (!sb.isEmpty())
+                sb.append('\n');
+            sb.append(key).append('=').append(value);
+        });
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return ScrollPosition.keyset();
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String pair : List.of(raw.split("\n"))) {
+                int eq = pair.indexOf('=');
+                String key = pair.substring(0, eq);
+                Function<String, Object> parser = KEY_PARSERS.get(key);
+                if (parser == null)
+                    throw new IllegalArgumentException("Unknown cursor key: " + key);
+                keys.put(key, parser.apply(pair.substring(eq + 1)));
+            }
+            return ScrollPosition.forward(keys);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.monomart.service;
+
+import com.monomart.entities.Order;
+import com.monomart.exception.RetryLaterException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Group-commit front end for order placement.
+ *
+ * Incoming checkouts are queued for up to {@code max-linger-ms} and committed together in one
+ * transaction, so N concurrent orders cost one commit instead of N. Each caller still receives its
+ * own order or exception: an order that would fall short is rejected inside the batch before it
+ * writes anything (see {@link OrderService#placeOrders}); only an unexpected failure of the batch as
+ * a whole replays every placement in its own transaction. When disabled, or when the queue is full, orders go
+ * straight through {@link OrderService#placeOrder}.
+ *
+ * A caller waits at most {@code wait-timeout-ms} for a dispatcher to pick its order up; after that
+ * the order is withdrawn and the caller gets a 503. Once picked up, an order is always completed.
+ */
+@Slf4j
+@Component
+public class OrderPlacementPipeline {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final OrderService orderService;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final int dispatchers;
+    private final long waitTimeoutMillis;
+    private final BlockingQueue<PendingOrder> queue;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public OrderPlacementPipeline(OrderService orderService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${orders.placement.pipeline.enabled:false}") boolean enabled,
+                                  @Value("${orders.placement.pipeline.max-batch-size:32}") int maxBatchSize,
+                                  @Value("${orders.placement.pipeline.max-linger-ms:5}") long maxLingerMillis,
+                                  @Value("${orders.placement.pipeline.queue-capacity:1024}") int queueCapacity,
+                                  @Value("${orders.placement.pipeline.dispatchers:2}") int dispatchers,
+                                  @Value("${orders.placement.pipeline.wait-timeout-ms:5000}") long waitTimeoutMillis) {
+        this.orderService = orderService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(maxLingerMillis);
+        this.dispatchers = dispatchers;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled)
+            return;
+        running = true;
+        for (int i = 0; i < dispatchers; i++) {
+            Thread t = new Thread(this::dispatch, "order-placement-" + i);
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+        }
+        log.info("Order placement pipeline started (dispatchers={}, maxBatchSize={}, maxLinger={}ms)",
+                dispatchers, maxBatchSize, TimeUnit.NANOSECONDS.toMillis(maxLingerNanos));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread t : threads) {
+            t.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        PendingOrder leftover;
+        while ((leftover = queue.poll()) != null) {
+            if (leftover.take())
+                placeIndividually(leftover);
+        }
+    }
+
+    public Order place(Long userId, Long addressId) {
+        PendingOrder pending = new PendingOrder(new OrderService.Placement(userId, addressId));
+        if (!running || !queue.offer(pending)) {
+            return orderService.placeOrder(userId, addressId);
+        }
+        // stop() may have drained the queue between the running check and the offer.
+        if (!running && queue.remove(pending)) {
+            return orderService.placeOrder(userId, addressId);
+        }
+        try {
+            return pending.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (pending.take()) {
+                meterRegistry.counter("orders.placement.wait_timeouts").increment();
+                throw RetryLaterException.overloaded("Order placement is busy, please retry", 1);
+            }
+            // A dispatcher already holds the order and completes it whatever happens.
+            return await(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while placing order", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private Order await(PendingOrder pending) {
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException re)
+            return re;
+        if (cause instanceof Error err)
+            throw err;
+        return new IllegalStateException(cause);
+    }
+
+    private void dispatch() {
+        List<PendingOrder> deferred = new ArrayList<>();
+        try {
+            while (running || !queue.isEmpty() || !deferred.isEmpty()) {
+                List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+                Set<Long> users = new HashSet<>();
+                List<PendingOrder> carried = new ArrayList<>(deferred);
+                deferred.clear();
+                for (PendingOrder p : carried) {
+                    admit(p, batch, users, deferred);
+                }
+                try {
+                    if (batch.isEmpty()) {
+                        PendingOrder first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                        if (first == null || !first.take())
+                            continue;
+                        admit(first, batch, users, deferred);
+                    }
+                    long deadline = System.nanoTime() + maxLingerNanos;
+                    while (batch.size() < maxBatchSize) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0)
+                            break;
+                        PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null)
+                            break;
+                        if (next.take())
+                            admit(next, batch, users, deferred);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+                commit(batch);
+            }
+        } finally {
+            // Only reached with work left over if the thread is dying on an Error.
+            deferred.forEach(p -> p.result.completeExceptionally(new IllegalStateException("Order dispatcher stopped")));
+        }
+    }
+
+    // Two placements for the same user would race on the same cart, so the second waits for the next batch.
+    private void admit(PendingOrder p, List<PendingOrder> batch, Set<Long> users, List<PendingOrder> deferred) {
+        if (batch.size() < maxBatchSize && users.add(p.placement.userId()))
+            batch.add(p);
+        else
+            deferred.add(p);
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        if (batch.isEmpty())
+            return;
+        meterRegistry.summary("orders.placement.batch_size").record(batch.size());
+        try {
+            if (batch.size() == 1) {
+                placeIndividually(batch.get(0));
+                return;
+            }
+            List<OrderService.Placed> placed;
+            try {
+                placed = orderService.placeOrders(batch.stream().map(p -> p.placement).toList());
+            } catch (RuntimeException e) {
+                meterRegistry.counter("orders.placement.batch_fallbacks").increment();
+                log.debug("Order batch of {} rolled back, replaying individually: {}", batch.size(), e.getMessage());
+                batch.forEach(this::placeIndividually);
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                OrderService.Placed r = placed.get(i);
+                if (r.order() != null) {
+                    batch.get(i).result.complete(r.order());
+                } else if (r.error() != null) {
+                    // Business rejections (stock, empty cart) are final.
+                    meterRegistry.counter("orders.placement.batch_rejections").increment();
+                    batch.get(i).result.completeExceptionally(r.error());
+                } else {
+                    // The batch left it undecided (e.g. a bad address); let the single path say why.
+                    meterRegistry.counter("orders.placement.batch_retries").increment();
+                    placeIndividually(batch.get(i));
+                }
+            }
+        } catch (Throwable t) {
+            batch.forEach(p -> p.result.completeExceptionally(t));
+            throw t;
+        }
+    }
+
+    private void placeIndividually(PendingOrder p) {
+        try {
+            p.result.complete(orderService.placeOrder(p.placement.userId(), p.placement.addressId()));
+        } catch (RuntimeException e) {
+            p.result.completeExceptionally(e);
+        }
+    }
+
+    private static final class PendingOrder {
+        private final OrderService.Placement placement;
+        private final CompletableFuture<Order> result = new CompletableFuture<>();
+        // Set by whoever gets to it first: a dispatcher picking it up or the caller giving up.
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        private PendingOrder(OrderService.Placement placement) {
+            this.placement = placement;
+        }
+
+        private boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+}
@@ -8,53 +8,127 @@ import com.monomart.entities.Product;
 import com.monomart.entities.User;
 import com.monomart.entities.UserAddress;
 import com.monomart.entities.enums.OrderStatus;
+import com.monomart.exception.InsufficientStockException;
 import com.monomart.repository.CartItemRepository;
 import com.monomart.repository.OrderItemRepository;
 import com.monomart.repository.OrderRepository;
-import com.monomart.repository.ProductRepository;
 import com.monomart.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class OrderService {
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final CartItemRepository cartItemRepository;
-    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
     private final UserRepository userRepository;
     private final UserAddressService userAddressService;
     private final OrderAddressService orderAddressService;
+    private final EntityManager entityManager;
 
     public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
-            CartItemRepository cartItemRepository, ProductRepository productRepository, UserRepository userRepository,
-            UserAddressService userAddressService, OrderAddressService orderAddressService) {
+            CartItemRepository cartItemRepository, InventoryService inventoryService, UserRepository userRepository,
+            UserAddressService userAddressService, OrderAddressService orderAddressService,
+            EntityManager entityManager) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.cartItemRepository = cartItemRepository;
-        this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
         this.userRepository = userRepository;
         this.userAddressService = userAddressService;
         this.orderAddressService = orderAddressService;
+        this.entityManager = entityManager;
     }
 
     public Page<Order> listAll(Pageable pageable) {
         return orderRepository.findAll(pageable);
     }
 
+    public Slice<Order> listAllSlice(Pageable pageable) {
+        return orderRepository.findSliceBy(pageable);
+    }
+
     public Page<Order> listByUser(Long userId, Pageable pageable) {
         return orderRepository.findByUserId(userId, pageable);
     }
 
+    public Window<Order> scrollAll(String cursor, int size) {
+        return orderRepository.findBy(KeysetCursor.decode(cursor), NEWEST_FIRST, Limit.of(KeysetCursor.clampSize(size)));
+    }
+
+    public Window<Order> scrollByUser(Long userId, String cursor, int size) {
+        return orderRepository.findByUserId(userId, KeysetCursor.decode(cursor), NEWEST_FIRST,
+                Limit.of(KeysetCursor.clampSize(size)));
+    }
+
     public Order get(Long id) {
         return orderRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Order not found"));
     }
 
+    public record Placement(Long userId, Long addressId) {
+    }
+
+    /**
+     * Outcome of one placement in a batch: the order, the exception that rejected it, or neither when
+     * the batch could not decide and the placement should be retried on its own.
+     */
+    public record Placed(Order order, RuntimeException error) {
+    }
+
+    /**
+     * Places several independent orders in one transaction. The stock rows of every cart are locked
+     * up front in the global lock order; each order is then checked against those locked rows before
+     * anything is written, so an order that would fall short is reported in its {@link Placed}
+     * without touching the database while the others still commit together.
+     */
+    @Transactional
+    public List<Placed> placeOrders(List<Placement> placements) {
+        inventoryService.lockCarts(placements.stream().map(Placement::userId).toList());
+        List<Placed> results = new ArrayList<>(placements.size());
+        for (Placement placement : placements) {
+            results.add(placeLocked(placement));
+            // Stock is decremented with native updates that managed entities never see; start every
+            // order from fresh rows rather than from what an earlier order in the batch loaded.
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return results;
+    }
+
+    // Nothing in here may throw through a transactional proxy: that would mark the shared
+    // transaction rollback-only and take the whole batch down with this one order.
+    private Placed placeLocked(Placement placement) {
+        UserAddress userAddress = userAddressService.findOwnedAddress(placement.addressId(), placement.userId())
+                .orElse(null);
+        if (userAddress == null)
+            return new Placed(null, null);
+
+        List<CartItem> cartItems = cartItemRepository.findByUserId(placement.userId());
+        if (cartItems.isEmpty())
+            return new Placed(null, new IllegalArgumentException("Cart is empty"));
+
+        List<String> shortSkus = inventoryService.shortfall(cartItems);
+        if (!shortSkus.isEmpty())
+            return new Placed(null, new InsufficientStockException(shortSkus));
+
+        inventoryService.reserve(cartItems);
+        return new Placed(createOrder(userAddress.getUser(), userAddress, cartItems), null);
+    }
+
     @Transactional
     public Order placeOrder(Long userId, Long addressId) {
         // Verify address ownership first
@@ -62,18 +136,21 @@ public class OrderService {
 
         User user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        // Create immutable snapshot of the address for this order
-        OrderAddress orderAddress = orderAddressService.createFromUserAddress(userAddress, user);
         List<CartItem> cartItems = cartItemRepository.findByUserId(userId);
         if (cartItems.isEmpty())
             throw new IllegalArgumentException("Cart is empty");
 
+        inventoryService.reserve(cartItems);
+        return createOrder(user, userAddress, cartItems);
+    }
+
+    private Order createOrder(User user, UserAddress userAddress, List<CartItem> cartItems) {
+        // Create immutable snapshot of the address for this order
+        OrderAddress orderAddress = orderAddressService.createFromUserAddress(userAddress, user);
+
         BigDecimal total = BigDecimal.ZERO;
         for (CartItem ci : cartItems) {
-            Product p = ci.getProduct();
-            if (ci.getQuantity() > p.getStockQuantity())
-                throw new IllegalArgumentException("Insufficient stock for product: " + p.getName());
-            total = total.add(p.getPrice().multiply(BigDecimal.valueOf(ci.getQuantity())));
+            total = total.add(ci.getProduct().getPrice().multiply(BigDecimal.valueOf(ci.getQuantity())));
         }
 
         Order order = new Order();
@@ -85,9 +162,6 @@ public class OrderService {
 
         for (CartItem ci : cartItems) {
             Product p = ci.getProduct();
-            p.setStockQuantity(p.getStockQuantity() - ci.getQuantity());
-            productRepository.save(p);
-
             OrderItem oi = new OrderItem();
             oi.setOrder(order);
             oi.setProduct(p);
@@ -96,7 +170,7 @@ public class OrderService {
             orderItemRepository.save(oi);
         }
 
-        cartItemRepository.deleteByUserId(userId);
+        cartItemRepository.deleteByUserId(user.getId());
         return order;
     }
 
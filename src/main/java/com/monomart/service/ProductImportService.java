@@ -0,0 +1,323 @@
+package com.monomart.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monomart.dto.product.ProductDtos;
+import com.monomart.entities.Category;
+import com.monomart.repository.CategoryRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Streams a CSV or NDJSON product catalog into the database.
+ *
+ * The body is read record by record and written in chunks of {@code products.import.chunk-size}, each in
+ * its own transaction, so memory stays flat regardless of file size. Progress, per-row errors and a
+ * final summary are streamed back as NDJSON events while the import runs. A chunk that fails to
+ * write is retried row by row, so one bad row doesn't fail its neighbours.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private final ProductService productService;
+    private final CategoryRepository categoryRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ProductImportService(ProductService productService,
+                                CategoryRepository categoryRepository,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Value("${products.import.chunk-size:1000}") int chunkSize) {
+        this.productService = productService;
+        this.categoryRepository = categoryRepository;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public void importProducts(InputStream body, Format format, OutputStream events) throws IOException {
+        Set<Long> categoryIds = new HashSet<>();
+        Map<String, Long> categoryIdsByName = new HashMap<>();
+        for (Category c : categoryRepository.findAll()) {
+            categoryIds.add(c.getId());
+            categoryIdsByName.put(c.getName().toLowerCase(Locale.ROOT), c.getId());
+        }
+
+        RecordReader reader = new RecordReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), format == Format.CSV);
+        String[] header = null;
+        if (format == Format.CSV) {
+            String headerRecord = reader.next();
+            if (headerRecord == null) {
+                emit(events, ProductDtos.ImportEvent.builder().type("summary").processed(0L).created(0L).updated(0L).failed(0L).build());
+                return;
+            }
+            header = splitCsv(headerRecord);
+        }
+
+        List<ProductDtos.ImportProductRow> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        long processed = 0;
+        long created = 0;
+        long updated = 0;
+        long failed = 0;
+
+        String record;
+        while ((record = reader.next()) != null) {
+            if (record.isBlank())
+                continue;
+            processed++;
+            try {
+                ProductDtos.ImportProductRow row = format == Format.CSV
+                        ? parseCsvRow(header, record)
+                        : objectMapper.readValue(record, ProductDtos.ImportProductRow.class);
+                resolveCategory(row, categoryIds, categoryIdsByName);
+                validate(row);
+                chunk.add(row);
+                chunkLines.add(reader.line());
+            } catch (JsonProcessingException e) {
+                failed++;
+                emit(events, ProductDtos.ImportEvent.builder().type("error").line(reader.line()).message(e.getOriginalMessage()).build());
+                continue;
+            } catch (IllegalArgumentException e) {
+                failed++;
+                emit(events, ProductDtos.ImportEvent.builder().type("error").line(reader.line()).message(e.getMessage()).build());
+                continue;
+            }
+
+            if (chunk.size() >= chunkSize) {
+                long[] counts = writeChunk(chunk, chunkLines, events);
+                created += counts[0];
+                updated += counts[1];
+                failed += counts[2];
+                chunk.clear();
+                chunkLines.clear();
+                emit(events, ProductDtos.ImportEvent.builder().type("progress")
+                        .processed(processed).created(created).updated(updated).failed(failed).build());
+            }
+        }
+        if (!chunk.isEmpty()) {
+            long[] counts = writeChunk(chunk, chunkLines, events);
+            created += counts[0];
+            updated += counts[1];
+            failed += counts[2];
+        }
+        if (reader.unterminated()) {
+            processed++;
+            failed++;
+            emit(events, ProductDtos.ImportEvent.builder().type("error").line(reader.line())
+                    .message("Unterminated quoted field; the rest of the file was not imported").build());
+        }
+
+        log.info("Product import finished: processed={}, created={}, updated={}, failed={}", processed, created, updated, failed);
+        emit(events, ProductDtos.ImportEvent.builder().type("summary")
+                .processed(processed).created(created).updated(updated).failed(failed).build());
+    }
+
+    /**
+     * Writes a chunk in one transaction. If it fails, the chunk is retried a row at a time so only
+     * the offending rows are reported, with a message that doesn't leak SQL or driver details.
+     */
+    private long[] writeChunk(List<ProductDtos.ImportProductRow> chunk, List<Long> lines, OutputStream events)
+            throws IOException {
+        try {
+            ProductService.UpsertCounts counts = productService.upsertBySku(chunk);
+            return new long[] { counts.created(), counts.updated(), 0 };
+        } catch (RuntimeException e) {
+            log.warn("Product import chunk (lines {}-{}) failed, retrying row by row",
+                    lines.get(0), lines.get(lines.size() - 1), e);
+        }
+        long[] totals = new long[3];
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                ProductService.UpsertCounts counts = productService.upsertBySku(List.of(chunk.get(i)));
+                totals[0] += counts.created();
+                totals[1] += counts.updated();
+            } catch (RuntimeException e) {
+                log.warn("Product import row at line {} failed: {}", lines.get(i), e.getMessage());
+                totals[2]++;
+                emit(events, ProductDtos.ImportEvent.builder().type("error").line(lines.get(i))
+                        .message(rowFailure(e)).build());
+            }
+        }
+        return totals;
+    }
+
+    private static String rowFailure(RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException)
+            return "Rejected by a database constraint or column limit";
+        if (e instanceof IllegalArgumentException)
+            return e.getMessage();
+        return "Could not be saved";
+    }
+
+    private void resolveCategory(ProductDtos.ImportProductRow row, Set<Long> ids, Map<String, Long> idsByName) {
+        Long categoryId = row.getCategoryId() != null
+                ? (ids.contains(row.getCategoryId()) ? row.getCategoryId() : null)
+                : row.getCategoryName() != null ? idsByName.get(row.getCategoryName().toLowerCase(Locale.ROOT)) : null;
+        if (categoryId == null)
+            throw new IllegalArgumentException("Category not found");
+        row.setCategoryId(categoryId);
+    }
+
+    private void validate(ProductDtos.ImportProductRow row) {
+        Set<ConstraintViolation<ProductDtos.ImportProductRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(cv -> cv.getPropertyPath() + ": " + cv.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private ProductDtos.ImportProductRow parseCsvRow(String[] header, String line) {
+        String[] values = splitCsv(line);
+        ProductDtos.ImportProductRow row = new ProductDtos.ImportProductRow();
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            String value = values[i].isEmpty() ? null : values[i];
+            if (value == null)
+                continue;
+            switch (header[i].trim()) {
+                case "sku" -> row.setSku(value);
+                case "name" -> row.setName(value);
+                case "description" -> row.setDescription(value);
+                case "price" -> row.setPrice(new BigDecimal(value));
+                case "stockQuantity" -> row.setStockQuantity(Integer.valueOf(value));
+                case "categoryId" -> row.setCategoryId(Long.valueOf(value));
+                case "categoryName" -> row.setCategoryName(value);
+                case "imageUrl" -> row.setImageUrl(value);
+                default -> {
+                    // Unknown columns are ignored.
+                }
+            }
+        }
+        return row;
+    }
+
+    // RFC 4180 field splitting for one record: quoted fields may contain commas, doubled quotes and newlines.
+    private String[] splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private void emit(OutputStream events, ProductDtos.ImportEvent event) throws IOException {
+        events.write(objectMapper.writeValueAsBytes(event));
+        events.write('\n');
+        events.flush();
+    }
+
+    /**
+     * Reads the body one record at a time. An NDJSON record is a line; a CSV record runs on past
+     * line breaks while a quoted field is open, up to {@link #MAX_RECORD_CHARS}.
+     */
+    private static final class RecordReader {
+
+        private static final int MAX_RECORD_CHARS = 1 << 20;
+
+        private final BufferedReader reader;
+        private final boolean csv;
+        private long lineNo;
+        private long recordLine;
+        private boolean unterminated;
+
+        RecordReader(BufferedReader reader, boolean csv) {
+            this.reader = reader;
+            this.csv = csv;
+        }
+
+        /**
+         * The next record, or null at the end of the input or after an unterminated quoted field.
+         */
+        String next() throws IOException {
+            if (unterminated)
+                return null;
+            String line = reader.readLine();
+            if (line == null)
+                return null;
+            recordLine = ++lineNo;
+            if (!csv || !opensQuote(line, false))
+                return line;
+
+            StringBuilder record = new StringBuilder(line);
+            boolean quoted = true;
+            while (quoted) {
+                line = reader.readLine();
+                if (line == null || record.length() + line.length() >= MAX_RECORD_CHARS) {
+                    unterminated = true;
+                    return null;
+                }
+                lineNo++;
+                record.append('\n').append(line);
+                quoted = opensQuote(line, true);
+            }
+            return record.toString();
+        }
+
+        /**
+         * First line of the last record returned, or of the unterminated one.
+         */
+        long line() {
+            return recordLine;
+        }
+
+        boolean unterminated() {
+            return unterminated;
+        }
+
+        // Whether a quoted field is still open at the end of the line; doubled quotes toggle twice.
+        private static boolean opensQuote(String line, boolean quoted) {
+            for (int i = 0; i < line.length(); i++) {
+                if (line.charAt(i) == '"')
+                    quoted = !quoted;
+            }
+            return quoted;
+        }
+    }
+}
@@ -1,13 +1,49 @@
 package com.monomart.service;
 
+import com.monomart.cache.CacheNames;
+import com.monomart.cache.SingleFlight;
 import com.monomart.entities.Category;
 import com.monomart.entities.Product;
+import com.monomart.entities.ProductTombstone;
 import com.monomart.dto.product.ProductDtos;
+import com.monomart.event.ProductChangedEvent;
+import com.monomart.event.ProductImageStoredEvent;
+import com.monomart.image.ImageStore;
 import com.monomart.mapper.Mappers;
 import com.monomart.repository.CategoryRepository;
 import com.monomart.repository.ProductRepository;
+import com.monomart.repository.ProductTombstoneRepository;
+import com.monomart.search.ProductSearchIndex;
+import jakarta.persistence.criteria.Predicate;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,28 +51,248 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductTombstoneRepository tombstoneRepository;
     private final CategoryRepository categoryRepository;
+    private final InventoryService inventoryService;
+    private final ProductSearchIndex searchIndex;
+    private final ApplicationEventPublisher events;
+    private final SingleFlight singleFlight;
+    private final CacheManager cacheManager;
     private final Mappers mappers;
+    private final int maxBatchIds;
 
-    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository, Mappers mappers) {
+    public ProductService(ProductRepository productRepository, ProductTombstoneRepository tombstoneRepository,
+                          CategoryRepository categoryRepository,
+                          InventoryService inventoryService, ProductSearchIndex searchIndex,
+                          ApplicationEventPublisher events, SingleFlight singleFlight,
+                          CacheManager cacheManager, Mappers mappers,
+                          @Value("${products.batch.max-ids:100}") int maxBatchIds) {
         this.productRepository = productRepository;
+        this.tombstoneRepository = tombstoneRepository;
         this.categoryRepository = categoryRepository;
+        this.inventoryService = inventoryService;
+        this.searchIndex = searchIndex;
+        this.events = events;
+        this.singleFlight = singleFlight;
+        this.cacheManager = cacheManager;
         this.mappers = mappers;
+        this.maxBatchIds = maxBatchIds;
     }
 
     public Page<Product> list(Pageable pageable) {
-        return productRepository.findAll(pageable);
+        return singleFlight.execute("products.list", pageable, () -> productRepository.findAll(pageable));
+    }
+
+    public Slice<Product> listSlice(Pageable pageable) {
+        return singleFlight.execute("products.listSlice", pageable, () -> productRepository.findSliceBy(pageable));
+    }
+
+    public Window<Product> scroll(String cursor, int size) {
+        return productRepository.findBy(KeysetCursor.decode(cursor),
+                Sort.by(Sort.Direction.DESC, "createdAt", "id"), Limit.of(KeysetCursor.clampSize(size)));
     }
 
     public Page<Product> listByCategory(Long categoryId, Pageable pageable) {
-        return productRepository.findByCategoryId(categoryId, pageable);
+        return singleFlight.execute("products.listByCategory", List.of(categoryId, pageable),
+                () -> productRepository.findByCategoryId(categoryId, pageable));
+    }
+
+    public Slice<Product> listSliceByCategory(Long categoryId, Pageable pageable) {
+        return singleFlight.execute("products.listSliceByCategory", List.of(categoryId, pageable),
+                () -> productRepository.findSliceByCategoryId(categoryId, pageable));
+    }
+
+    /**
+     * Products matching the filter, ordered by its sort (ties broken by id). Only the predicates
+     * that are set are added, so each combination can use its own composite or partial index.
+     */
+    public Page<Product> filter(ProductDtos.ProductFilter filter, Pageable pageable) {
+        Specification<Product> spec = filterSpec(filter);
+        Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), filterSort(filter));
+        return singleFlight.execute("products.filter", List.of(filter, sorted),
+                () -> productRepository.findAll(spec, sorted));
+    }
+
+    public Slice<Product> filterSlice(ProductDtos.ProductFilter filter, Pageable pageable) {
+        Specification<Product> spec = filterSpec(filter);
+        Sort sort = filterSort(filter);
+        ScrollPosition position = pageable.getOffset() == 0
+                ? ScrollPosition.offset()
+                : ScrollPosition.offset(pageable.getOffset() - 1);
+        return singleFlight.execute("products.filterSlice", List.of(filter, pageable), () -> {
+            Window<Product> window = productRepository.findBy(spec,
+                    q -> q.sortBy(sort).limit(pageable.getPageSize()).scroll(position));
+            return new SliceImpl<>(window.getContent(), PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort),
+                    window.hasNext());
+        });
+    }
+
+    private static Specification<Product> filterSpec(ProductDtos.ProductFilter filter) {
+        BigDecimal min = filter.getMinPrice();
+        BigDecimal max = filter.getMaxPrice();
+        if (min != null && max != null && min.compareTo(max) > 0)
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        List<Long> categoryIds = filter.getCategoryIds();
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(4);
+            if (categoryIds != null && !categoryIds.isEmpty())
+                predicates.add(root.get("category").get("id").in(categoryIds));
+            if (min != null)
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), min));
+            if (max != null)
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), max));
+            if (filter.isInStock())
+                predicates.add(cb.greaterThan(root.get("stockQuantity"), 0));
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static Sort filterSort(ProductDtos.ProductFilter filter) {
+        return switch (filter.getSort() != null ? filter.getSort() : ProductDtos.FilterSort.NEWEST) {
+            case PRICE_ASC -> Sort.by(Sort.Direction.ASC, "price", "id");
+            case PRICE_DESC -> Sort.by(Sort.Direction.DESC, "price", "id");
+            case NEWEST -> Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        };
     }
 
+    /**
+     * Relevance-ranked search over name and description from {@link ProductSearchIndex}. Requests
+     * with an explicit sort, or made before the index is built, use the SQL name match instead.
+     *
+     * The two paths match differently: the index needs every query word to start a word of the name
+     * or description ({@code "wire"} finds "Wireless mouse", {@code "less"} does not), while the
+     * SQL fallback matches the whole query as a substring of the name only.
+     */
     public Page<Product> searchByName(String query, Pageable pageable) {
-        return productRepository.findByNameContainingIgnoreCase(query, pageable);
+        Page<Product> indexed = searchIndexed(query, pageable);
+        return indexed != null ? indexed : productRepository.findByNameContainingIgnoreCase(query, pageable);
+    }
+
+    public Slice<Product> searchSliceByName(String query, Pageable pageable) {
+        Page<Product> indexed = searchIndexed(query, pageable);
+        return indexed != null ? indexed : productRepository.findSliceByNameContainingIgnoreCase(query, pageable);
     }
 
+    private Page<Product> searchIndexed(String query, Pageable pageable) {
+        if (pageable.getSort().isSorted())
+            return null;
+        ProductSearchIndex.Hits hits = searchIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+        if (hits == null)
+            return null;
+        Map<Long, Product> byId = productRepository.findAllById(hits.ids()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> content = hits.ids().stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(content, pageable, hits.total());
+    }
+
+    /**
+     * Cached read for the storefront; entries are evicted after commit by {@code CacheInvalidator}
+     * and concurrent misses for the same id share one load. Write paths load through {@link #load}
+     * so they never modify a cached instance.
+     */
+    @Cacheable(CacheNames.PRODUCTS)
     public Product get(Long id) {
+        return singleFlight.execute("products.get", id, () -> load(id));
+    }
+
+    public record Change(Long id, Instant changedAt, Product product) { // product is null for a deletion
+    }
+
+    public record Changes(List<Change> changes, String next, boolean hasMore) {
+    }
+
+    /**
+     * Upserts and deletions after {@code cursor}, in the order of the transactions that wrote them.
+     * Only transactions older than every one still running are returned, so a slow transaction
+     * can hold the feed back but never lands behind a cursor already handed out. {@code next} is
+     * always set so clients can resume from it later.
+     */
+    public Changes changes(String cursor, int limit) {
+        int size = KeysetCursor.clampSize(limit);
+        Map<String, Object> keys = KeysetCursor.decode(cursor).getKeys();
+        if (!keys.isEmpty() && !(keys.get("xid") instanceof Long && keys.get("id") instanceof Long))
+            throw new IllegalArgumentException("Invalid cursor");
+        long afterXid = keys.isEmpty() ? 0L : (Long) keys.get("xid");
+        long afterId = keys.isEmpty() ? 0L : (Long) keys.get("id");
+
+        List<Product> updated = productRepository.findChangedAfter(afterXid, afterId, size + 1);
+        List<ProductTombstone> deleted = tombstoneRepository.findDeletedAfter(afterXid, afterId, size + 1);
+        List<Change> changes = new ArrayList<>(size);
+        long lastXid = afterXid;
+        int u = 0;
+        int d = 0;
+        while (changes.size() < size && (u < updated.size() || d < deleted.size())) {
+            Product p = u < updated.size() ? updated.get(u) : null;
+            ProductTombstone t = d < deleted.size() ? deleted.get(d) : null;
+            boolean takeUpdate = t == null || (p != null && (p.getChangeXid() < t.getChangeXid()
+                    || p.getChangeXid().equals(t.getChangeXid()) && p.getId() < t.getProductId()));
+            if (takeUpdate) {
+                changes.add(new Change(p.getId(), p.getUpdatedAt(), p));
+                lastXid = p.getChangeXid();
+                u++;
+            } else {
+                changes.add(new Change(t.getProductId(), t.getDeletedAt(), null));
+                lastXid = t.getChangeXid();
+                d++;
+            }
+        }
+
+        boolean hasMore = updated.size() + deleted.size() > changes.size();
+        Change last = changes.isEmpty() ? null : changes.get(changes.size() - 1);
+        Map<String, Object> position = new LinkedHashMap<>();
+        position.put("xid", lastXid);
+        position.put("id", last != null ? last.id() : afterId);
+        return new Changes(changes, KeysetCursor.encode(ScrollPosition.forward(position)), hasMore);
+    }
+
+    public record Batch(List<Product> found, List<Long> missing) {
+    }
+
+    /**
+     * Resolves up to {@code products.batch.max-ids} products in request order (duplicates once).
+     * Ids already in the product cache are served from it; the rest are loaded with one
+     * {@code IN} query and cached.
+     */
+    public Batch getAll(List<Long> ids) {
+        if (ids == null || ids.isEmpty())
+            throw new IllegalArgumentException("At least one product id is required");
+        if (ids.size() > maxBatchIds)
+            throw new IllegalArgumentException("At most " + maxBatchIds + " product ids per request");
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.contains(null))
+            throw new IllegalArgumentException("Product ids must not be null");
+
+        Cache cache = cacheManager.getCache(CacheNames.PRODUCTS);
+        Map<Long, Product> byId = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : requested) {
+            Product cached = cache != null ? cache.get(id, Product.class) : null;
+            if (cached != null)
+                byId.put(id, cached);
+            else
+                misses.add(id);
+        }
+        if (!misses.isEmpty()) {
+            for (Product p : productRepository.findAllById(misses)) {
+                byId.put(p.getId(), p);
+                if (cache != null)
+                    cache.putIfAbsent(p.getId(), p);
+            }
+        }
+
+        List<Product> found = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Product p = byId.get(id);
+            if (p != null)
+                found.add(p);
+            else
+                missing.add(id);
+        }
+        return new Batch(found, missing);
+    }
+
+    private Product load(Long id) {
         return productRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Product not found"));
     }
 
@@ -46,38 +302,132 @@ public class ProductService {
                 .orElseThrow(() -> new IllegalArgumentException("Category not found"));
         Product product = new Product();
         product.setName(request.getName());
-        product.setSku(java.util.UUID.randomUUID().toString());
+        product.setSku(UUID.randomUUID().toString());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
         product.setStockQuantity(request.getStockQuantity());
         product.setCategory(category);
         product.setImageUrl(request.getImageUrl());
-        return productRepository.save(product);
+        return saved(productRepository.save(product));
     }
 
     @Transactional
     public Product update(Long id, ProductDtos.UpdateProductRequest request) {
-        Product product = get(id);
+        Product product = load(id);
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new IllegalArgumentException("Category not found"));
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
-        product.setStockQuantity(request.getStockQuantity());
+        if (product.getStockStripes() > 0)
+            inventoryService.resetHotStock(product, request.getStockQuantity());
+        else
+            product.setStockQuantity(request.getStockQuantity());
         product.setCategory(category);
         product.setImageUrl(request.getImageUrl());
-        return productRepository.save(product);
+        return saved(productRepository.save(product));
+    }
+
+    public record UpsertCounts(int created, int updated) {
+    }
+
+    /**
+     * Inserts or updates (matched by SKU) a chunk of imported rows in one transaction. Rows must
+     * already carry a resolved {@code categoryId}; rows without a SKU always create a new product.
+     */
+    @Transactional
+    public UpsertCounts upsertBySku(List<ProductDtos.ImportProductRow> rows) {
+        Map<String, Product> bySku = new HashMap<>();
+        List<String> skus = rows.stream().map(ProductDtos.ImportProductRow::getSku).filter(Objects::nonNull).toList();
+        if (!skus.isEmpty()) {
+            productRepository.findBySkuIn(skus).forEach(p -> bySku.put(p.getSku(), p));
+        }
+
+        int created = 0;
+        int updated = 0;
+        List<Product> toSave = new ArrayList<>(rows.size());
+        for (ProductDtos.ImportProductRow row : rows) {
+            Product product = row.getSku() != null ? bySku.get(row.getSku()) : null;
+            if (product == null) {
+                product = new Product();
+                product.setSku(row.getSku() != null ? row.getSku() : UUID.randomUUID().toString());
+                product.setStockQuantity(row.getStockQuantity());
+                bySku.put(product.getSku(), product);
+                toSave.add(product);
+                created++;
+            } else {
+                if (product.getStockStripes() > 0)
+                    inventoryService.resetHotStock(product, row.getStockQuantity());
+                else
+                    product.setStockQuantity(row.getStockQuantity());
+                updated++;
+            }
+            product.setName(row.getName());
+            product.setDescription(row.getDescription());
+            product.setPrice(row.getPrice());
+            product.setCategory(categoryRepository.getReferenceById(row.getCategoryId()));
+            product.setImageUrl(row.getImageUrl());
+        }
+        productRepository.saveAll(toSave);
+        bySku.values().forEach(this::saved);
+        return new UpsertCounts(created, updated);
     }
 
     @Transactional
-    public Product updateImage(Long id, String imageUrlOrBase64) {
-        Product product = get(id);
-        product.setImageUrl(imageUrlOrBase64);
-        return productRepository.save(product);
+    public Product setHotSku(Long id, ProductDtos.HotSkuRequest request) {
+        return saved(request.getEnabled()
+                ? inventoryService.enableHotSku(id, request.getStripes())
+                : inventoryService.disableHotSku(id));
+    }
+
+    /**
+     * Points the product at an external image URL. Inline (data URI / base64) images are rejected;
+     * they belong in the image store via {@link #setImage}.
+     */
+    @Transactional
+    public Product updateImage(Long id, String imageUrl) {
+        if (imageUrl.startsWith("data:") || imageUrl.length() > 500)
+            throw new IllegalArgumentException("Inline images are not accepted; upload the file to POST /api/v1/products/{id}/image");
+        Product product = load(id);
+        product.setImageUrl(imageUrl);
+        product.setImageKey(null);
+        product.setImageVariants(null);
+        return saved(productRepository.save(product));
+    }
+
+    @Transactional
+    public Product setImage(Long id, String imageKey) {
+        Product product = load(id);
+        product.setImageKey(imageKey);
+        product.setImageUrl(ImageStore.urlFor(imageKey));
+        product.setImageVariants(null);
+        events.publishEvent(new ProductImageStoredEvent(id, imageKey));
+        return saved(productRepository.save(product));
+    }
+
+    /**
+     * Records generated variants, unless the product has moved on to another image meanwhile.
+     */
+    @Transactional
+    public void setImageVariants(Long id, String imageKey, List<String> variants) {
+        Product product = productRepository.findById(id).orElse(null);
+        if (product == null || !imageKey.equals(product.getImageKey()))
+            return;
+        product.setImageVariants(String.join(",", variants));
+        saved(productRepository.save(product));
     }
 
     @Transactional
     public void delete(Long id) {
+        if (!productRepository.existsById(id))
+            return;
         productRepository.deleteById(id);
+        tombstoneRepository.save(new ProductTombstone(id, Instant.now()));
+        events.publishEvent(ProductChangedEvent.deleted(id));
+    }
+
+    private Product saved(Product product) {
+        events.publishEvent(ProductChangedEvent.saved(product));
+        return product;
     }
 }
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class UserAddressService {
@@ -42,6 +43,16 @@ public class UserAddressService {
         return address;
     }
 
+    /**
+     * Non-throwing variant of {@link #verifyAddressOwnership} for callers that must not mark their
+     * transaction rollback-only on a bad address.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserAddress> findOwnedAddress(Long addressId, Long userId) {
+        return addressRepository.findById(addressId)
+                .filter(address -> address.getUser().getId().equals(userId));
+    }
+
     // ----------------- CREATE -----------------
     @Transactional
     public UserAddress addOrUpdateAddress(Long userId, UserAddressDtos.CreateRequest dto) {
@@ -3,10 +3,15 @@ package com.monomart.service;
 import com.monomart.entities.User;
 import com.monomart.entities.enums.Role;
 import com.monomart.dto.auth.AuthDtos;
+import com.monomart.event.UserChangedEvent;
 import com.monomart.repository.UserRepository;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,13 +22,17 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final com.monomart.security.JwtTokenService jwtTokenService;
+    private final ApplicationEventPublisher events;
+    private volatile String unknownUserHash;
 
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
-                       com.monomart.security.JwtTokenService jwtTokenService) {
+                       com.monomart.security.JwtTokenService jwtTokenService,
+                       ApplicationEventPublisher events) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtTokenService = jwtTokenService;
+        this.events = events;
     }
 
     @Transactional
@@ -39,17 +48,60 @@ public class UserService {
         user.setEmail(request.getEmail());
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setRole(Role.ROLE_CUSTOMER);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        events.publishEvent(UserChangedEvent.changed(saved.getId(), saved.getUsername()));
+        return saved;
     }
 
+    /**
+     * One query over both unique indexes. If the value is one user's username and another's email,
+     * the username match wins.
+     */
     public Optional<User> findByUsernameOrEmail(String usernameOrEmail) {
-        return userRepository.findByUsername(usernameOrEmail).or(() -> userRepository.findByEmail(usernameOrEmail));
+        List<User> matches = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail);
+        return matches.stream()
+                .filter(u -> u.getUsername().equals(usernameOrEmail))
+                .findFirst()
+                .or(() -> matches.stream().findFirst());
+    }
+
+    /**
+     * Verifies a login against the user loaded by {@link #findByUsernameOrEmail}, so the same
+     * entity serves the lookup, the password check and the token claims. Unknown logins still pay
+     * for one hash comparison, so response time does not reveal which accounts exist.
+     */
+    public User authenticate(String usernameOrEmail, String rawPassword) {
+        return authenticate(findByUsernameOrEmail(usernameOrEmail), rawPassword);
+    }
+
+    /**
+     * Same as {@link #authenticate(String, String)} for a user the caller already looked up, e.g.
+     * to throttle by account before paying for the hash.
+     */
+    public User authenticate(Optional<User> user, String rawPassword) {
+        if (user.isEmpty()) {
+            passwordEncoder.matches(rawPassword, unknownUserHash());
+            throw new BadCredentialsException("Invalid credentials");
+        }
+        if (!passwordEncoder.matches(rawPassword, user.get().getPassword()))
+            throw new BadCredentialsException("Invalid credentials");
+        return user.get();
+    }
+
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            unknownUserHash = hash;
+        }
+        return hash;
     }
 
     public AuthDtos.TokenResponse buildTokensFor(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", user.getRole().name());
         claims.put("uid", user.getId());
+        claims.put("ver", user.getTokenVersion());
         String access = jwtTokenService.generateAccessToken(user.getUsername(), claims);
         String refresh = jwtTokenService.generateRefreshToken(user.getUsername(), claims);
         return AuthDtos.TokenResponse.builder()
@@ -59,6 +111,17 @@ public class UserService {
                 .build();
     }
 
+    /**
+     * Invalidates every access and refresh token issued to the user so far.
+     */
+    @Transactional
+    public void revokeTokens(Long userId) {
+        User user = findById(userId);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        events.publishEvent(UserChangedEvent.changed(user.getId(), user.getUsername()));
+    }
+
     public User findById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
@@ -0,0 +1,15 @@
+--liquibase formatted sql
+
+--changeset monomart:010-add-stock-stripes-to-products
+ALTER TABLE products ADD COLUMN stock_stripes INT NOT NULL DEFAULT 0;
+
+--changeset monomart:011-create-product-stock-stripes-table
+CREATE TABLE product_stock_stripes (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    stripe INT NOT NULL,
+    quantity INT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_product_stock_stripes UNIQUE (product_id, stripe)
+);
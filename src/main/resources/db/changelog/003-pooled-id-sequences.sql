@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset monomart:012-pooled-id-sequences
+-- Hibernate allocates ids from these sequences in blocks of 50 (pooled optimizer), so the
+-- database increment must match BaseEntity.ID_ALLOCATION_SIZE.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE categories_id_seq INCREMENT BY 50;
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+ALTER SEQUENCE cart_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE user_addresses_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_addresses_id_seq INCREMENT BY 50;
+ALTER SEQUENCE product_stock_stripes_id_seq INCREMENT BY 50;
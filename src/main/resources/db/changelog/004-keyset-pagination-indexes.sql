@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset monomart:013-keyset-pagination-indexes
+-- Composite indexes backing cursor pagination on (created_at, id); categories page by their unique name.
+CREATE INDEX idx_products_created_id ON products (created_at, id);
+CREATE INDEX idx_orders_created_id ON orders (created_at, id);
+CREATE INDEX idx_orders_user_created_id ON orders (user_id, created_at, id);
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset monomart:014-product-image-key
+-- Content-addressed key of an uploaded product image; image_url then holds the short serving URL.
+ALTER TABLE products ADD COLUMN image_key VARCHAR(80);
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset monomart:015-product-image-variants
+-- Resized variants already generated for products.image_key, as a comma-separated list of names.
+ALTER TABLE products ADD COLUMN image_variants VARCHAR(100);
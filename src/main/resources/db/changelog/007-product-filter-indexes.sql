@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+--changeset monomart:016-product-filter-indexes
+-- Back the product filter: category + price or newest ordering, and partial indexes so the
+-- in-stock-only variants skip sold-out rows entirely.
+CREATE INDEX idx_products_category_price_id ON products (category_id, price, id);
+CREATE INDEX idx_products_category_created_id ON products (category_id, created_at, id);
+CREATE INDEX idx_products_price_id ON products (price, id);
+CREATE INDEX idx_products_in_stock_price_id ON products (price, id) WHERE stock_quantity > 0;
+CREATE INDEX idx_products_in_stock_created_id ON products (created_at, id) WHERE stock_quantity > 0;
+CREATE INDEX idx_products_in_stock_category_price_id ON products (category_id, price, id) WHERE stock_quantity > 0;
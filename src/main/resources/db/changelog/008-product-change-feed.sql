@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset monomart:017-product-change-feed
+-- The change feed reads products in (updated_at, id) order and deletions from their tombstones.
+CREATE INDEX idx_products_updated_id ON products (updated_at, id);
+
+CREATE TABLE product_tombstones (
+    product_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_product_tombstones_deleted_id ON product_tombstones (deleted_at, product_id);
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset monomart:018-user-token-version
+-- Version stamped into issued tokens; incrementing it revokes every token of the user.
+ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
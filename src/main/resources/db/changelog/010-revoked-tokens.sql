@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset monomart:019-revoked-tokens
+-- Revoked token ids (jti); rows past expires_at are purged since the token is dead anyway.
+CREATE TABLE revoked_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
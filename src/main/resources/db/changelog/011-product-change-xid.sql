@@ -0,0 +1,27 @@
+--liquibase formatted sql
+
+--changeset monomart:020-product-change-xid-columns
+-- The change feed orders by the writing transaction id instead of updated_at: updated_at is
+-- stamped before commit, so a slow transaction could land behind a cursor already handed out.
+ALTER TABLE products ADD COLUMN change_xid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE product_tombstones ADD COLUMN change_xid BIGINT NOT NULL DEFAULT 0;
+
+DROP INDEX idx_products_updated_id;
+DROP INDEX idx_product_tombstones_deleted_id;
+CREATE INDEX idx_products_change_xid_id ON products (change_xid, id);
+CREATE INDEX idx_product_tombstones_change_xid_id ON product_tombstones (change_xid, product_id);
+
+--changeset monomart:021-product-change-xid-trigger splitStatements:false
+-- Stamped by trigger so every write path is covered, including native stock updates.
+CREATE FUNCTION stamp_change_xid() RETURNS trigger AS $$
+BEGIN
+    NEW.change_xid := txid_current();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+--changeset monomart:022-product-change-xid-triggers
+CREATE TRIGGER trg_products_change_xid BEFORE INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_xid();
+CREATE TRIGGER trg_product_tombstones_change_xid BEFORE INSERT OR UPDATE ON product_tombstones
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_xid();
@@ -0,0 +1,130 @@
+package com.monomart.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.monomart.MonoMartApplication;
+import com.monomart.dto.product.ProductDtos;
+import com.monomart.entities.Category;
+import com.monomart.entities.Product;
+import com.monomart.entities.User;
+import com.monomart.entities.UserAddress;
+import com.monomart.service.OrderService;
+import com.monomart.service.ProductService;
+import com.monomart.support.Fixtures;
+import com.monomart.support.IsolatedCacheManager;
+import com.monomart.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs a second application context against the same database and checks that writes on one
+ * node reach the other node's product cache through {@code LISTEN/NOTIFY}.
+ */
+@TestPropertySource(properties = {
+        "cache.invalidation.enabled=true",
+        "cache.invalidation.poll-ms=50"
+})
+class ClusterInvalidationBusTest extends PostgresIntegrationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired ApplicationContext context;
+    @Autowired ProductService productService;
+    @Autowired DataSourceProperties dataSourceProperties;
+
+    ConfigurableApplicationContext otherNode;
+    Fixtures fixtures;
+    Category category;
+
+    @BeforeEach
+    void startOtherNode() {
+        otherNode = new SpringApplicationBuilder(MonoMartApplication.class, IsolatedCacheManager.class)
+                .profiles("test", "postgres")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + dataSourceProperties.determineUrl(),
+                        "--spring.datasource.username=" + dataSourceProperties.determineUsername(),
+                        "--spring.datasource.password=" + dataSourceProperties.determinePassword(),
+                        "--spring.liquibase.enabled=false",
+                        "--cache.invalidation.enabled=true",
+                        "--cache.invalidation.poll-ms=50");
+        fixtures = new Fixtures(context);
+        category = fixtures.category();
+    }
+
+    @AfterEach
+    void stopOtherNode() {
+        if (otherNode != null)
+            otherNode.close();
+    }
+
+    @Test
+    void productWriteOnOneNodeEvictsTheOtherNodesCache() {
+        Product product = fixtures.product(category, 5);
+        assertThat(productService.get(product.getId()).getName()).isEqualTo(product.getName());
+
+        otherNode.getBean(ProductService.class).updateImage(product.getId(), "https://cdn.example.com/new.png");
+
+        awaitTrue(() -> "https://cdn.example.com/new.png".equals(productService.get(product.getId()).getImageUrl()));
+    }
+
+    @Test
+    void checkoutOnOneNodeEvictsTheOtherNodesCachedStock() {
+        Product product = fixtures.product(category, 5);
+        assertThat(productService.get(product.getId()).getStockQuantity()).isEqualTo(5);
+
+        User user = fixtures.customer();
+        UserAddress address = fixtures.address(user);
+        fixtures.cartItem(user, product, 2);
+        otherNode.getBean(OrderService.class).placeOrder(user.getId(), address.getId());
+
+        awaitTrue(() -> productService.get(product.getId()).getStockQuantity() == 3);
+    }
+
+    @Test
+    void oneTransactionSendsOneNotificationForAllItsProducts() {
+        List<Product> products = List.of(fixtures.product(category, 1), fixtures.product(category, 2),
+                fixtures.product(category, 3));
+        products.forEach(p -> productService.get(p.getId()));
+        List<ProductDtos.ImportProductRow> rows = products.stream().map(p -> {
+            ProductDtos.ImportProductRow row = new ProductDtos.ImportProductRow();
+            row.setSku(p.getSku());
+            row.setName("Renamed " + p.getId());
+            row.setPrice(p.getPrice());
+            row.setStockQuantity(p.getStockQuantity());
+            row.setCategoryId(category.getId());
+            return row;
+        }).toList();
+        Counter notifications = otherNode.getBean(MeterRegistry.class).counter("cache.invalidation.notifications");
+        double before = notifications.count();
+
+        otherNode.getBean(ProductService.class).upsertBySku(rows);
+
+        assertThat(notifications.count() - before).isEqualTo(1);
+        awaitTrue(() -> products.stream().allMatch(p -> productService.get(p.getId()).getName().equals("Renamed " + p.getId())));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within %s", TIMEOUT).isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
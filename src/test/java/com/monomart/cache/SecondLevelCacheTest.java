@@ -0,0 +1,109 @@
+package com.monomart.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.monomart.entities.Category;
+import com.monomart.entities.Product;
+import com.monomart.service.CategoryService;
+import com.monomart.service.ProductService;
+import com.monomart.support.Fixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Counts statements with Hibernate statistics to show which layer serves each read: the Spring
+ * cache first, then the second-level (and query) cache once the Spring entry is gone.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired ApplicationContext context;
+    @Autowired CategoryService categoryService;
+    @Autowired ProductService productService;
+    @Autowired CacheManager cacheManager;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    Fixtures fixtures;
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(context);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void productGetIsServedBySpringCacheThenSecondLevelCache() {
+        Product product = fixtures.product(fixtures.category(), 5);
+        resetCaches();
+
+        productService.get(product.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        productService.get(product.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        clearSpringCache(CacheNames.PRODUCTS);
+        productService.get(product.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void categoryGetIsServedBySpringCacheThenSecondLevelCache() {
+        Category category = fixtures.category();
+        resetCaches();
+
+        categoryService.get(category.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        categoryService.get(category.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        clearSpringCache(CacheNames.CATEGORIES);
+        categoryService.get(category.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void categoryListIsServedBySpringCacheThenQueryCache() {
+        fixtures.category();
+        fixtures.category();
+        resetCaches();
+        PageRequest page = PageRequest.of(0, 10);
+
+        categoryService.list(page);
+        long statements = statistics.getPrepareStatementCount();
+        assertThat(statements).isPositive();
+
+        categoryService.list(page);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+
+        clearSpringCache(CacheNames.CATEGORY_PAGES);
+        categoryService.list(page);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getQueryCacheHitCount()).isPositive();
+    }
+
+    private void resetCaches() {
+        cacheManager.getCacheNames().forEach(this::clearSpringCache);
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        statistics.clear();
+    }
+
+    private void clearSpringCache(String name) {
+        cacheManager.getCache(name).clear();
+    }
+}
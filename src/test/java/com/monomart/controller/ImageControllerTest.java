@@ -0,0 +1,78 @@
+package com.monomart.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.monomart.image.ImageStore;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+class ImageControllerTest {
+
+    // A PNG signature followed by filler; the store only sniffs the magic bytes.
+    private static final byte[] IMAGE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3, 4, 5, 6, 7, 8};
+
+    @TempDir Path dir;
+
+    ImageStore imageStore;
+    ImageController controller;
+    String key;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        imageStore = new ImageStore(dir.toString(), DataSize.ofBytes(IMAGE.length));
+        controller = new ImageController(imageStore);
+        key = imageStore.store(new ByteArrayInputStream(IMAGE));
+    }
+
+    @Test
+    void satisfiableRangeIsServedAsPartialContent() throws IOException {
+        MockHttpServletResponse response = get("bytes=4-7");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 4-7/16");
+        assertThat(response.getContentAsByteArray()).containsExactly('\r', '\n', 0x1A, '\n');
+    }
+
+    @Test
+    void malformedRangeIsIgnored() throws IOException {
+        MockHttpServletResponse response = get("bytes=abc");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(IMAGE);
+    }
+
+    @Test
+    void rangePastTheEndIsNotSatisfiable() throws IOException {
+        MockHttpServletResponse response = get("bytes=16-20");
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */16");
+    }
+
+    @Test
+    void oversizeUploadMapsToPayloadTooLarge() {
+        byte[] tooLarge = new byte[IMAGE.length + 1];
+        System.arraycopy(IMAGE, 0, tooLarge, 0, IMAGE.length);
+
+        assertThatThrownBy(() -> imageStore.store(new ByteArrayInputStream(tooLarge)))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+    }
+
+    private MockHttpServletResponse get(String range) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ImageStore.urlFor(key));
+        request.addHeader(HttpHeaders.RANGE, range);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.get(key, request, response);
+        return response;
+    }
+}
@@ -0,0 +1,57 @@
+package com.monomart.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class IdempotencyStoreTest {
+
+    private static final byte[] FINGERPRINT = {1, 2, 3};
+    private static final IdempotencyStore.StoredResponse RESPONSE =
+            new IdempotencyStore.StoredResponse(201, "application/json", new byte[1_000]);
+
+    private final IdempotencyStore store =
+            new IdempotencyStore(new SimpleMeterRegistry(), Duration.ofHours(1), DataSize.ofKilobytes(10));
+
+    @Test
+    void completedResponsesAreReplayed() {
+        store.begin("a", FINGERPRINT);
+        store.complete("a", RESPONSE);
+
+        IdempotencyStore.Lookup replay = store.begin("a", FINGERPRINT);
+        assertThat(replay.outcome()).isEqualTo(IdempotencyStore.Outcome.REPLAY);
+        assertThat(replay.response()).isSameAs(RESPONSE);
+        assertThat(store.begin("a", new byte[] {9}).outcome()).isEqualTo(IdempotencyStore.Outcome.MISMATCH);
+    }
+
+    @Test
+    void fullStoreEvictsCompletedEntriesButKeepsInFlightOnesAndAcceptsNewKeys() {
+        store.begin("in-flight", FINGERPRINT);
+        for (int i = 0; i < 100; i++) {
+            assertThat(store.begin("done-" + i, FINGERPRINT).outcome()).isEqualTo(IdempotencyStore.Outcome.NEW);
+            store.complete("done-" + i, RESPONSE);
+        }
+        store.purgeExpired();
+
+        assertThat(store.begin("in-flight", FINGERPRINT).outcome()).isEqualTo(IdempotencyStore.Outcome.IN_FLIGHT);
+        // About ten 1 KB responses fit in 10 KB; which ones survive is up to Caffeine's admission policy.
+        long replayed = 0;
+        for (int i = 0; i < 100; i++) {
+            if (store.begin("done-" + i, FINGERPRINT).outcome() == IdempotencyStore.Outcome.REPLAY)
+                replayed++;
+        }
+        assertThat(replayed).isBetween(1L, 10L);
+        assertThat(store.begin("new", FINGERPRINT).outcome()).isEqualTo(IdempotencyStore.Outcome.NEW);
+    }
+
+    @Test
+    void releasedKeyCanBeRetried() {
+        store.begin("a", FINGERPRINT);
+        store.release("a");
+
+        assertThat(store.begin("a", FINGERPRINT).outcome()).isEqualTo(IdempotencyStore.Outcome.NEW);
+    }
+}
@@ -0,0 +1,47 @@
+package com.monomart.image;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class ImageVariantServiceTest {
+
+    @TempDir Path dir;
+
+    @Test
+    void imagesOverThePixelCapAreNotDecoded() throws IOException {
+        Path file = png(40, 30);
+
+        assertThat(service(1_199).read(file, "test.png")).isNull();
+        BufferedImage image = service(1_200).read(file, "test.png");
+        assertThat(image.getWidth()).isEqualTo(40);
+        assertThat(image.getHeight()).isEqualTo(30);
+    }
+
+    @Test
+    void unreadableFilesAreSkipped() throws IOException {
+        Path file = dir.resolve("not-an-image.png");
+        Files.write(file, new byte[] {1, 2, 3, 4});
+
+        assertThat(service(1_000).read(file, "test.png")).isNull();
+    }
+
+    private ImageVariantService service(long maxPixels) throws IOException {
+        return new ImageVariantService(new ImageStore(dir.toString(), DataSize.ofMegabytes(1)),
+                null, new SimpleMeterRegistry(), 1, 1, 1, 0, maxPixels);
+    }
+
+    private Path png(int width, int height) throws IOException {
+        Path file = dir.resolve("image.png");
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+        return file;
+    }
+}
@@ -0,0 +1,48 @@
+package com.monomart.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SerialRebuildTest {
+
+    @Test
+    void requestsDuringARebuildCollapseIntoOneFollowUp() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        SerialRebuild rebuild = new SerialRebuild("test-rebuild", () -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            runs.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrent.decrementAndGet();
+        });
+        try {
+            rebuild.request();
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 10; i++)
+                rebuild.request();
+            Thread direct = new Thread(rebuild::run);
+            direct.start();
+
+            release.countDown();
+            direct.join(5000);
+            rebuild.run();
+
+            assertThat(runs.get()).isLessThanOrEqualTo(4);
+            assertThat(maxConcurrent.get()).isEqualTo(1);
+        } finally {
+            rebuild.shutdown();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.monomart.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class SuggestTrieTest {
+
+    private static final int TOP_K = 10;
+    private static final int MAX_KEY_LENGTH = 48;
+
+    private static final String[] BRANDS = { "acme", "northwind", "contoso", "fabrikam", "globex", "initech",
+            "umbrella", "hooli", "stark", "wayne", "tyrell", "cyberdyne" };
+    private static final String[] ADJECTIVES = { "red", "black", "white", "compact", "wireless", "ergonomic",
+            "stainless", "organic", "premium", "portable", "heavy duty", "slim", "waterproof", "bamboo" };
+    private static final String[] NOUNS = { "office chair", "standing desk", "coffee maker", "water bottle",
+            "desk lamp", "keyboard", "mouse", "backpack", "headphones", "blender", "frying pan", "monitor arm",
+            "usb-c charger", "yoga mat", "notebook", "kettle", "toaster", "phone case", "travel mug", "bookshelf" };
+
+    private final Map<Long, String> catalog = new HashMap<>();
+    private final SuggestTrie trie = new SuggestTrie(TOP_K, MAX_KEY_LENGTH);
+
+    @Test
+    void compressesARealisticCatalogToUnderHalfTheNodesOfACharacterTrie() {
+        load(20_000);
+
+        TreeSet<String> keys = new TreeSet<>();
+        catalog.values().forEach(name -> keys.addAll(keys(name)));
+        int characterTrieNodes = characterTrieNodes(keys);
+        int radixNodes = trie.nodeCount();
+
+        // A radix trie has at most one branching node per key on top of the key nodes themselves.
+        assertThat(radixNodes).isLessThanOrEqualTo(2 * keys.size() + 1);
+        assertThat(radixNodes * 2).isLessThan(characterTrieNodes);
+        // Names are stored once, not once per character node.
+        assertThat(trie.textLength()).isEqualTo(catalog.values().stream().mapToInt(String::length).sum());
+    }
+
+    @Test
+    void suggestionsMatchABruteForceScan() {
+        load(5_000);
+
+        assertMatchesBruteForce(new Random(7));
+    }
+
+    @Test
+    void suggestionsStayCorrectAfterRenamesAndDeletes() {
+        load(5_000);
+        Random random = new Random(11);
+        for (long id = 1; id <= 5_000; id += 3) {
+            trie.remove(catalog.get(id), id);
+            if (random.nextBoolean()) {
+                catalog.remove(id);
+            } else {
+                String renamed = name(random);
+                catalog.put(id, renamed);
+                trie.add(renamed, id);
+            }
+        }
+
+        assertMatchesBruteForce(random);
+        assertThat(trie.top("zz")).isEmpty();
+    }
+
+    private void load(int products) {
+        Random random = new Random(42);
+        for (long id = 1; id <= products; id++) {
+            String name = name(random);
+            catalog.put(id, name);
+            trie.add(name, id);
+        }
+    }
+
+    private static String name(Random random) {
+        String name = BRANDS[random.nextInt(BRANDS.length)] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)]
+                + " " + NOUNS[random.nextInt(NOUNS.length)];
+        return switch (random.nextInt(3)) {
+            case 0 -> name + " " + (char) ('a' + random.nextInt(26)) + random.nextInt(1000);
+            case 1 -> name + " gen " + (1 + random.nextInt(5));
+            default -> name;
+        };
+    }
+
+    private void assertMatchesBruteForce(Random random) {
+        List<String> names = new ArrayList<>(catalog.values());
+        for (int i = 0; i < 500; i++) {
+            List<String> words = keys(names.get(random.nextInt(names.size())));
+            String key = words.get(random.nextInt(words.size()));
+            String prefix = key.substring(0, 1 + random.nextInt(key.length()));
+
+            long[] expected = catalog.entrySet().stream()
+                    .filter(e -> keys(e.getValue()).stream().anyMatch(k -> k.startsWith(prefix)))
+                    .map(Map.Entry::getKey)
+                    .sorted(Comparator.reverseOrder())
+                    .limit(TOP_K)
+                    .mapToLong(Long::longValue)
+                    .toArray();
+            assertThat(trie.top(prefix)).as(prefix).containsExactly(expected);
+        }
+    }
+
+    private static List<String> keys(String name) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != ' ' && (i == 0 || name.charAt(i - 1) == ' '))
+                keys.add(name.substring(i, Math.min(name.length(), i + MAX_KEY_LENGTH)));
+        }
+        return keys;
+    }
+
+    // One node per distinct prefix, plus the root.
+    private static int characterTrieNodes(TreeSet<String> sortedKeys) {
+        int nodes = 1;
+        String previous = "";
+        for (String key : sortedKeys) {
+            int common = 0;
+            while (common < Math.min(key.length(), previous.length()) && key.charAt(common) == previous.charAt(common))
+                common++;
+            nodes += key.length() - common;
+            previous = key;
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,79 @@
+package com.monomart.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.Key;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of verifying one access token: a parser built per call (the old filter), the shared
+ * parser, and {@link JwtTokenService#parseToken} with its verified-token cache.
+ *
+ * Run with {@code mvn test -Pbenchmark -Dtest=JwtParseBenchmark}; the profile adds the JMH
+ * annotation processor.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "bW9ub21hcnQtYmVuY2htYXJrLXNlY3JldC1rZXktMzItYnl0ZXMhIQ==";
+    private static final String ISSUER = "monomart";
+
+    private Key key;
+    private JwtParser sharedParser;
+    private JwtTokenService service;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        sharedParser = Jwts.parserBuilder().setSigningKey(key).requireIssuer(ISSUER).build();
+        service = new JwtTokenService(SECRET, ISSUER, 15, 7, 10_000, new SimpleMeterRegistry());
+        token = service.generateAccessToken("benchmark-user", Map.of("uid", 1L, "role", "ROLE_CUSTOMER", "ver", 0));
+    }
+
+    @Benchmark
+    public Claims parserPerCall() {
+        return Jwts.parserBuilder().setSigningKey(key).requireIssuer(ISSUER).build().parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return sharedParser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims cachedService() {
+        return service.parseToken(token);
+    }
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtParseBenchmark.class.getName() + "\\.").build()).run();
+    }
+}
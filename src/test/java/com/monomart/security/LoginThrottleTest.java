@@ -0,0 +1,56 @@
+package com.monomart.security;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.monomart.exception.RetryLaterException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class LoginThrottleTest {
+
+    private static final String USER = LoginThrottle.account(42L, "alice");
+
+    private final LoginThrottle throttle = new LoginThrottle(new SimpleMeterRegistry(),
+            3, 10, 20, Duration.ofMinutes(1), Duration.ofMinutes(15), Duration.ofMinutes(15), 1_000);
+
+    @Test
+    void failuresFromOneClientDoNotLockTheAccountElsewhere() {
+        fail(USER, "10.0.0.1", 3);
+
+        assertThatThrownBy(() -> throttle.checkAccount(USER, "10.0.0.1")).isInstanceOf(RetryLaterException.class);
+        assertThatCode(() -> throttle.checkAccount(USER, "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void failuresSpreadAcrossClientsHitTheGlobalThreshold() {
+        for (int i = 0; i < 10; i++)
+            fail(USER, "10.0.1." + i, 1);
+
+        assertThatThrownBy(() -> throttle.checkAccount(USER, "10.0.2.1")).isInstanceOf(RetryLaterException.class);
+    }
+
+    @Test
+    void unknownNamesAreThrottledLikeExistingAccounts() {
+        String unknown = LoginThrottle.account(null, " Nobody@Example.com ");
+        fail(unknown, "10.0.3.1", 3);
+
+        assertThatThrownBy(() -> throttle.checkAccount(LoginThrottle.account(null, "nobody@example.com"), "10.0.3.1"))
+                .isInstanceOf(RetryLaterException.class);
+        assertThatCode(() -> throttle.checkIp("10.0.3.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successClearsTheClientsAccountCounter() {
+        fail(USER, "10.0.4.1", 3);
+        throttle.recordSuccess(USER, "10.0.4.1");
+
+        assertThatCode(() -> throttle.checkAccount(USER, "10.0.4.1")).doesNotThrowAnyException();
+    }
+
+    private void fail(String account, String ip, int times) {
+        for (int i = 0; i < times; i++)
+            throttle.recordFailure(account, ip);
+    }
+}
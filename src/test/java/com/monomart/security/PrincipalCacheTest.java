@@ -0,0 +1,71 @@
+package com.monomart.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.monomart.entities.User;
+import com.monomart.repository.UserRepository;
+import com.monomart.support.Fixtures;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Counts the statements behind principal resolution for a burst of authenticated requests, with
+ * the cache as configured and with a cache that holds nothing.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "inventory.hot-sku.fold-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class PrincipalCacheTest {
+
+    private static final int REQUESTS = 1_000;
+
+    @Autowired ApplicationContext context;
+    @Autowired PrincipalCache principalCache;
+    @Autowired UserRepository userRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+    Claims claims;
+
+    @BeforeEach
+    void setUp() {
+        User user = new Fixtures(context).customer();
+        claims = Jwts.claims().setSubject(user.getUsername());
+        claims.put("uid", user.getId());
+        claims.put("ver", user.getTokenVersion());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void cachedPrincipalIsLoadedOnce() {
+        for (int i = 0; i < REQUESTS; i++)
+            assertThat(principalCache.resolve(claims)).isNotNull();
+
+        // Background jobs may add a statement or two; the principal itself is loaded once.
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void withoutTheCacheEveryRequestQueries() {
+        // A zero TTL expires every entry on write; maximumSize(0) would evict in the background and still hit.
+        PrincipalCache uncached = new PrincipalCache(userRepository, new SimpleMeterRegistry(), Duration.ZERO, 10_000);
+        for (int i = 0; i < REQUESTS; i++)
+            assertThat(uncached.resolve(claims)).isNotNull();
+
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThanOrEqualTo(REQUESTS);
+    }
+}
@@ -0,0 +1,112 @@
+package com.monomart.service;
+
+import com.monomart.MonoMartApplication;
+import com.monomart.entities.Category;
+import com.monomart.entities.Product;
+import com.monomart.entities.User;
+import com.monomart.entities.UserAddress;
+import com.monomart.support.Fixtures;
+import com.monomart.support.IsolatedCacheManager;
+import com.monomart.support.PostgresIntegrationTest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Insert throughput for bulk product import and order placement with JDBC batching off, with
+ * Hibernate batches only, and with batches rewritten into multi-row inserts by the driver (the
+ * configured setup). The unbatched run stands in for the old {@code IDENTITY} ids, which forced
+ * one round trip per row in the same way. Each setup is its own application context on the same
+ * database. Run with {@code mvn test -Pbenchmark}; results are printed, nothing is asserted.
+ */
+@Tag("benchmark")
+class InsertBatchingBenchmarkTest extends PostgresIntegrationTest {
+
+    private static final int IMPORT_ROWS = 5_000;
+    private static final int ORDERS = 200;
+    private static final int LINES_PER_ORDER = 5;
+
+    @Autowired ApplicationContext context;
+    @Autowired DataSourceProperties dataSourceProperties;
+
+    final List<ConfigurableApplicationContext> others = new ArrayList<>();
+
+    @AfterEach
+    void stopOthers() {
+        others.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void unbatchedVersusBatched() throws IOException {
+        Map<String, ApplicationContext> setups = new LinkedHashMap<>();
+        setups.put("unbatched", start("--spring.jpa.properties.hibernate.jdbc.batch_size=1",
+                "--spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=false"));
+        setups.put("batched", start("--spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=false"));
+        setups.put("rewritten", context);
+
+        Category category = new Fixtures(context).category();
+        run("warmup", context, category);
+        for (Map.Entry<String, ApplicationContext> setup : setups.entrySet())
+            run(setup.getKey(), setup.getValue(), category);
+    }
+
+    private void run(String name, ApplicationContext node, Category category) throws IOException {
+        StringBuilder csv = new StringBuilder("sku,name,price,stockQuantity,categoryId\n");
+        for (int i = 0; i < IMPORT_ROWS; i++)
+            csv.append(UUID.randomUUID()).append(",Imported ").append(i).append(",9.99,100,").append(category.getId()).append('\n');
+        ProductImportService importer = node.getBean(ProductImportService.class);
+        long started = System.nanoTime();
+        importer.importProducts(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                ProductImportService.Format.CSV, new ByteArrayOutputStream());
+        long importNanos = System.nanoTime() - started;
+
+        Fixtures fixtures = new Fixtures(node);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < LINES_PER_ORDER * 4; i++)
+            products.add(fixtures.product(category, 1_000_000));
+        User user = fixtures.customer();
+        UserAddress address = fixtures.address(user);
+        OrderService orderService = node.getBean(OrderService.class);
+        long placingNanos = 0;
+        for (int n = 0; n < ORDERS; n++) {
+            for (int line = 0; line < LINES_PER_ORDER; line++)
+                fixtures.cartItem(user, products.get((n + line * 3) % products.size()), 1);
+            long t = System.nanoTime();
+            orderService.placeOrder(user.getId(), address.getId());
+            placingNanos += System.nanoTime() - t;
+        }
+
+        System.out.printf("BENCHMARK %-9s import=%d rows in %dms (%.0f rows/s) orders=%d x %d lines in %dms (%.0f orders/s)%n",
+                name, IMPORT_ROWS, importNanos / 1_000_000, IMPORT_ROWS / (importNanos / 1e9),
+                ORDERS, LINES_PER_ORDER, placingNanos / 1_000_000, ORDERS / (placingNanos / 1e9));
+    }
+
+    private ConfigurableApplicationContext start(String... overrides) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0",
+                "--spring.datasource.url=" + dataSourceProperties.determineUrl(),
+                "--spring.datasource.username=" + dataSourceProperties.determineUsername(),
+                "--spring.datasource.password=" + dataSourceProperties.determinePassword(),
+                "--spring.liquibase.enabled=false",
+                "--inventory.hot-sku.fold-interval-ms=3600000"));
+        args.addAll(List.of(overrides));
+        ConfigurableApplicationContext node = new SpringApplicationBuilder(MonoMartApplication.class, IsolatedCacheManager.class)
+                .profiles("test", "postgres")
+                .run(args.toArray(String[]::new));
+        others.add(node);
+        return node;
+    }
+}
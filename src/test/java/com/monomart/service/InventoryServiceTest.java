@@ -0,0 +1,68 @@
+package com.monomart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.monomart.entities.Category;
+import com.monomart.entities.Product;
+import com.monomart.entities.User;
+import com.monomart.entities.UserAddress;
+import com.monomart.search.ProductFacets;
+import com.monomart.support.Fixtures;
+import com.monomart.support.PostgresIntegrationTest;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "inventory.hot-sku.fold-interval-ms=3600000")
+class InventoryServiceTest extends PostgresIntegrationTest {
+
+    @Autowired ApplicationContext context;
+    @Autowired OrderService orderService;
+    @Autowired InventoryService inventoryService;
+    @Autowired ProductService productService;
+    @Autowired ProductFacets facets;
+
+    Fixtures fixtures;
+    Category category;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(context);
+        category = fixtures.category();
+    }
+
+    @Test
+    void checkoutRefreshesCachedProductAndFacets() {
+        Product product = fixtures.product(category, 1);
+        facets.rebuild();
+        assertThat(productService.get(product.getId()).getStockQuantity()).isEqualTo(1);
+        assertThat(facets.facets(List.of(category.getId()), true).getInStock()).isEqualTo(1);
+
+        checkout(product, 1);
+
+        assertThat(productService.get(product.getId()).getStockQuantity()).isZero();
+        assertThat(facets.facets(List.of(category.getId()), true).getInStock()).isZero();
+    }
+
+    @Test
+    void foldRefreshesCachedHotSku() {
+        Product product = fixtures.product(category, 10);
+        inventoryService.enableHotSku(product.getId(), 2);
+        assertThat(productService.get(product.getId()).getStockQuantity()).isEqualTo(10);
+
+        checkout(product, 3);
+        inventoryService.foldStripes();
+
+        assertThat(productService.get(product.getId()).getStockQuantity()).isEqualTo(7);
+    }
+
+    private void checkout(Product product, int quantity) {
+        User user = fixtures.customer();
+        UserAddress address = fixtures.address(user);
+        fixtures.cartItem(user, product, quantity);
+        orderService.placeOrder(user.getId(), address.getId());
+    }
+}
@@ -0,0 +1,121 @@
+package com.monomart.service;
+
+import com.monomart.entities.Category;
+import com.monomart.entities.Product;
+import com.monomart.entities.User;
+import com.monomart.entities.UserAddress;
+import com.monomart.support.Fixtures;
+import com.monomart.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Checkout throughput with and without group commit: concurrent customers each place a series of
+ * two-line orders, once straight through {@link OrderService#placeOrder} and once through the
+ * pipeline. Run with {@code mvn test -Pbenchmark}; results are printed, nothing is asserted.
+ */
+@Tag("benchmark")
+@TestPropertySource(properties = {
+        "orders.placement.pipeline.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.datasource.hikari.connection-timeout=120000",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class OrderPlacementBenchmarkTest extends PostgresIntegrationTest {
+
+    private static final int CUSTOMERS = 32;
+    private static final int ORDERS_PER_CUSTOMER = 25;
+
+    @Autowired ApplicationContext context;
+    @Autowired OrderPlacementPipeline pipeline;
+    @Autowired OrderService orderService;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired MeterRegistry meterRegistry;
+
+    @Test
+    void directVersusPipeline() throws Exception {
+        Fixtures fixtures = new Fixtures(context);
+        Category category = fixtures.category();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            products.add(fixtures.product(category, 1_000_000));
+        }
+        List<User> users = new ArrayList<>();
+        List<UserAddress> addresses = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            User user = fixtures.customer();
+            users.add(user);
+            addresses.add(fixtures.address(user));
+        }
+
+        BiConsumer<Long, Long> direct = orderService::placeOrder;
+        BiConsumer<Long, Long> grouped = pipeline::place;
+        run("warmup", direct, fixtures, products, users, addresses);
+        run("direct", direct, fixtures, products, users, addresses);
+        run("pipeline", grouped, fixtures, products, users, addresses);
+    }
+
+    private void run(String name, BiConsumer<Long, Long> place, Fixtures fixtures, List<Product> products,
+                     List<User> users, List<UserAddress> addresses) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CUSTOMERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            User user = users.get(i);
+            UserAddress address = addresses.get(i);
+            int seed = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                long placing = 0;
+                for (int n = 0; n < ORDERS_PER_CUSTOMER; n++) {
+                    fixtures.cartItem(user, products.get((seed + n) % products.size()), 1);
+                    fixtures.cartItem(user, products.get((seed + n + 7) % products.size()), 1);
+                    long t = System.nanoTime();
+                    place.accept(user.getId(), address.getId());
+                    placing += System.nanoTime() - t;
+                }
+                return placing;
+            }));
+        }
+        DistributionSummary batches = meterRegistry.summary("orders.placement.batch_size");
+        long batchesBefore = batches.count();
+        double batchedBefore = batches.totalAmount();
+        double fallbacksBefore = meterRegistry.counter("orders.placement.batch_fallbacks").count();
+        long commitsBefore = commits();
+        long started = System.nanoTime();
+        start.countDown();
+        long placingNanos = 0;
+        for (Future<Long> f : futures) {
+            placingNanos += f.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        long commits = commits() - commitsBefore;
+        pool.shutdown();
+
+        int orders = CUSTOMERS * ORDERS_PER_CUSTOMER;
+        System.out.printf("BENCHMARK %-8s orders=%d elapsed=%dms throughput=%.0f orders/s "
+                        + "mean-placement=%.2fms commits=%d (%d of them cart adds) batches=%d mean-batch=%.1f fallbacks=%.0f%n",
+                name, orders, elapsed / 1_000_000, orders / (elapsed / 1e9),
+                placingNanos / 1e6 / orders, commits, 2L * orders, batches.count() - batchesBefore,
+                (batches.totalAmount() - batchedBefore) / Math.max(1, batches.count() - batchesBefore),
+                meterRegistry.counter("orders.placement.batch_fallbacks").count() - fallbacksBefore);
+    }
+
+    private long commits() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics().getSuccessfulTransactionCount();
+    }
+}
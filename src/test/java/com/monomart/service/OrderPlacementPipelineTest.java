@@ -0,0 +1,141 @@
+package com.monomart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.monomart.entities.Category;
+import com.monomart.entities.Order;
+import com.monomart.entities.Product;
+import com.monomart.entities.User;
+import com.monomart.entities.UserAddress;
+import com.monomart.exception.InsufficientStockException;
+import com.monomart.repository.ProductRepository;
+import com.monomart.repository.ProductStockStripeRepository;
+import com.monomart.support.Fixtures;
+import com.monomart.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+        "orders.placement.pipeline.enabled=true",
+        "orders.placement.pipeline.max-linger-ms=20",
+        "inventory.hot-sku.fold-interval-ms=3600000"
+})
+class OrderPlacementPipelineTest extends PostgresIntegrationTest {
+
+    @Autowired ApplicationContext context;
+    @Autowired OrderPlacementPipeline pipeline;
+    @Autowired OrderService orderService;
+    @Autowired InventoryService inventoryService;
+    @Autowired ProductRepository productRepository;
+    @Autowired ProductStockStripeRepository stripeRepository;
+    @Autowired MeterRegistry meterRegistry;
+
+    Fixtures fixtures;
+    Category category;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(context);
+        category = fixtures.category();
+    }
+
+    @Test
+    void stockShortfallRejectsOnlyTheShortOrdersOfABatch() throws Exception {
+        Product product = fixtures.product(category, 5);
+        List<Callable<Object>> checkouts = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            User user = fixtures.customer();
+            UserAddress address = fixtures.address(user);
+            fixtures.cartItem(user, product, 1);
+            checkouts.add(() -> pipeline.place(user.getId(), address.getId()));
+        }
+        double fallbacksBefore = meterRegistry.counter("orders.placement.batch_fallbacks").count();
+        double retriesBefore = meterRegistry.counter("orders.placement.batch_retries").count();
+
+        List<Object> outcomes = runConcurrently(checkouts);
+
+        assertThat(outcomes).filteredOn(o -> o instanceof Order).hasSize(5);
+        assertThat(outcomes).filteredOn(o -> o instanceof InsufficientStockException).hasSize(19);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isZero();
+        assertThat(meterRegistry.summary("orders.placement.batch_size").max()).isGreaterThan(1);
+        assertThat(meterRegistry.counter("orders.placement.batch_fallbacks").count()).isEqualTo(fallbacksBefore);
+        assertThat(meterRegistry.counter("orders.placement.batch_retries").count()).isEqualTo(retriesBefore);
+    }
+
+    @Test
+    void overlappingCartsDoNotDeadlockAcrossBatchesAndDirectCheckouts() throws Exception {
+        Product a = fixtures.product(category, 1000);
+        Product b = fixtures.product(category, 1000);
+        Product hot = fixtures.product(category, 1000);
+        inventoryService.enableHotSku(hot.getId(), 4);
+
+        List<Callable<Object>> checkouts = new ArrayList<>();
+        int ordered = 0;
+        for (int i = 0; i < 60; i++) {
+            User user = fixtures.customer();
+            UserAddress address = fixtures.address(user);
+            // Alternate the cart order so naive per-order locking would take rows in opposite orders.
+            if (i % 2 == 0) {
+                fixtures.cartItem(user, b, 1);
+                fixtures.cartItem(user, hot, 1);
+                fixtures.cartItem(user, a, 1);
+            } else {
+                fixtures.cartItem(user, hot, 1);
+                fixtures.cartItem(user, a, 1);
+                fixtures.cartItem(user, b, 1);
+            }
+            ordered++;
+            boolean direct = i % 3 == 0;
+            checkouts.add(() -> direct
+                    ? orderService.placeOrder(user.getId(), address.getId())
+                    : pipeline.place(user.getId(), address.getId()));
+        }
+
+        double retriesBefore = meterRegistry.counter("orders.placement.batch_retries").count();
+
+        List<Object> outcomes = runConcurrently(checkouts);
+
+        assertThat(outcomes).allMatch(o -> o instanceof Order, "every checkout succeeds");
+        assertThat(meterRegistry.counter("orders.placement.batch_retries").count()).isEqualTo(retriesBefore);
+        assertThat(productRepository.findById(a.getId()).orElseThrow().getStockQuantity()).isEqualTo(1000 - ordered);
+        assertThat(productRepository.findById(b.getId()).orElseThrow().getStockQuantity()).isEqualTo(1000 - ordered);
+        int hotLeft = stripeRepository.findAll().stream()
+                .filter(s -> s.getProduct().getId().equals(hot.getId()))
+                .mapToInt(s -> s.getQuantity())
+                .sum();
+        assertThat(hotLeft).isEqualTo(1000 - ordered);
+    }
+
+    private static List<Object> runConcurrently(List<Callable<Object>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (Callable<Object> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        return task.call();
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            List<Object> outcomes = new ArrayList<>();
+            for (Future<Object> f : futures) {
+                outcomes.add(f.get());
+            }
+            return outcomes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.monomart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.monomart.entities.Category;
+import com.monomart.entities.Product;
+import com.monomart.support.Fixtures;
+import com.monomart.support.PostgresIntegrationTest;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ProductChangeFeedTest extends PostgresIntegrationTest {
+
+    @Autowired ApplicationContext context;
+    @Autowired ProductService productService;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    void slowTransactionHoldsTheFeedBackInsteadOfBeingSkipped() throws Exception {
+        Fixtures fixtures = new Fixtures(context);
+        Category category = fixtures.category();
+        Product slow = fixtures.product(category, 1);
+        Product fast = fixtures.product(category, 1);
+        String cursor = drain(null);
+
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slowWrite = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    rename(slow, "slow");
+                    written.countDown();
+                    await(release);
+                }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+        rename(fast, "fast");
+
+        ProductService.Changes held = productService.changes(cursor, 100);
+        assertThat(ids(held)).doesNotContain(slow.getId(), fast.getId());
+
+        release.countDown();
+        slowWrite.get(10, TimeUnit.SECONDS);
+
+        ProductService.Changes caughtUp = productService.changes(held.next(), 100);
+        assertThat(ids(caughtUp)).containsSubsequence(slow.getId(), fast.getId());
+    }
+
+    @Test
+    void deletionsAppearAsTombstones() {
+        Fixtures fixtures = new Fixtures(context);
+        Product product = fixtures.product(fixtures.category(), 1);
+        String cursor = drain(null);
+
+        productService.delete(product.getId());
+
+        List<ProductService.Change> changes = productService.changes(cursor, 100).changes();
+        assertThat(changes).anySatisfy(c -> {
+            assertThat(c.id()).isEqualTo(product.getId());
+            assertThat(c.product()).isNull();
+        });
+    }
+
+    private String drain(String cursor) {
+        ProductService.Changes page;
+        do {
+            page = productService.changes(cursor, 100);
+            cursor = page.next();
+        } while (page.hasMore());
+        return cursor;
+    }
+
+    private void rename(Product product, String name) {
+        jdbcTemplate.update("UPDATE products SET name = ?, updated_at = NOW() WHERE id = ?", name, product.getId());
+    }
+
+    private static List<Long> ids(ProductService.Changes changes) {
+        return changes.changes().stream().map(ProductService.Change::id).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
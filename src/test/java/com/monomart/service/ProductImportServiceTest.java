@@ -0,0 +1,103 @@
+package com.monomart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monomart.entities.Category;
+import com.monomart.entities.Product;
+import com.monomart.repository.ProductRepository;
+import com.monomart.support.Fixtures;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductImportServiceTest {
+
+    @Autowired ApplicationContext context;
+    @Autowired ProductImportService importService;
+    @Autowired ProductRepository productRepository;
+    @Autowired ObjectMapper objectMapper;
+
+    Category category;
+    String prefix;
+
+    @BeforeEach
+    void setUp() {
+        category = new Fixtures(context).category();
+        prefix = UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void quotedFieldsMaySpanLines() throws Exception {
+        List<JsonNode> events = run("sku,name,description,price,stockQuantity,categoryId\n"
+                + prefix + "-1,Desk,\"Oak top\n\nSteel \"\"A\"\" frame\",10.00,1," + category.getId() + "\n"
+                + prefix + "-2,Lamp,Plain,5.00,2," + category.getId() + "\n");
+
+        assertThat(events).last().satisfies(s -> {
+            assertThat(s.get("processed").asLong()).isEqualTo(2);
+            assertThat(s.get("created").asLong()).isEqualTo(2);
+            assertThat(s.get("failed").asLong()).isZero();
+        });
+        Product desk = productRepository.findBySkuIn(List.of(prefix + "-1")).get(0);
+        assertThat(desk.getDescription()).isEqualTo("Oak top\n\nSteel \"A\" frame");
+    }
+
+    @Test
+    void failedChunkIsRetriedRowByRowAndReportsOnlyTheBadRow() throws Exception {
+        // Passes validation but overflows the price column, so only the database rejects it.
+        List<JsonNode> events = run("sku,name,price,stockQuantity,categoryId\n"
+                + prefix + "-1,Chair,10.00,1," + category.getId() + "\n"
+                + prefix + "-2,Table,100000000000000000000,1," + category.getId() + "\n"
+                + prefix + "-3,Shelf,20.00,1," + category.getId() + "\n");
+
+        List<JsonNode> errors = events.stream().filter(e -> e.get("type").asText().equals("error")).toList();
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0).get("line").asLong()).isEqualTo(3);
+        assertThat(errors.get(0).get("message").asText())
+                .isEqualTo("Rejected by a database constraint or column limit");
+        assertThat(events).last().satisfies(s -> {
+            assertThat(s.get("created").asLong()).isEqualTo(2);
+            assertThat(s.get("failed").asLong()).isEqualTo(1);
+        });
+        assertThat(productRepository.findBySkuIn(List.of(prefix + "-1", prefix + "-3"))).hasSize(2);
+    }
+
+    @Test
+    void unterminatedQuoteStopsTheImportWithAnError() throws Exception {
+        List<JsonNode> events = run("sku,name,price,stockQuantity,categoryId\n"
+                + prefix + "-1,Chair,10.00,1," + category.getId() + "\n"
+                + prefix + "-2,\"Table,20.00,1," + category.getId() + "\n"
+                + prefix + "-3,Shelf,20.00,1," + category.getId() + "\n");
+
+        assertThat(events).anySatisfy(e -> {
+            assertThat(e.get("type").asText()).isEqualTo("error");
+            assertThat(e.get("line").asLong()).isEqualTo(3);
+        });
+        assertThat(events).last().satisfies(s -> {
+            assertThat(s.get("created").asLong()).isEqualTo(1);
+            assertThat(s.get("failed").asLong()).isEqualTo(1);
+        });
+    }
+
+    private List<JsonNode> run(String csv) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importService.importProducts(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                ProductImportService.Format.CSV, out);
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n"))
+            events.add(objectMapper.readTree(line));
+        return events;
+    }
+}
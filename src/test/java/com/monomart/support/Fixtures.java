@@ -0,0 +1,82 @@
+package com.monomart.support;
+
+import com.monomart.entities.CartItem;
+import com.monomart.entities.Category;
+import com.monomart.entities.Product;
+import com.monomart.entities.User;
+import com.monomart.entities.UserAddress;
+import com.monomart.entities.enums.Role;
+import com.monomart.repository.CartItemRepository;
+import com.monomart.repository.CategoryRepository;
+import com.monomart.repository.ProductRepository;
+import com.monomart.repository.UserAddressRepository;
+import com.monomart.repository.UserRepository;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Creates catalog, user and cart rows directly through the repositories.
+ */
+public class Fixtures {
+
+    private final CategoryRepository categories;
+    private final ProductRepository products;
+    private final UserRepository users;
+    private final UserAddressRepository addresses;
+    private final CartItemRepository cartItems;
+
+    public Fixtures(ApplicationContext context) {
+        this.categories = context.getBean(CategoryRepository.class);
+        this.products = context.getBean(ProductRepository.class);
+        this.users = context.getBean(UserRepository.class);
+        this.addresses = context.getBean(UserAddressRepository.class);
+        this.cartItems = context.getBean(CartItemRepository.class);
+    }
+
+    public Category category() {
+        Category c = new Category();
+        c.setName("Category " + UUID.randomUUID());
+        return categories.save(c);
+    }
+
+    public Product product(Category category, int stock) {
+        Product p = new Product();
+        p.setName("Product " + UUID.randomUUID());
+        p.setSku(UUID.randomUUID().toString());
+        p.setPrice(new BigDecimal("9.99"));
+        p.setStockQuantity(stock);
+        p.setCategory(category);
+        return products.save(p);
+    }
+
+    public User customer() {
+        String name = "u" + UUID.randomUUID().toString().replace("-", "").substring(0, 20);
+        User u = new User();
+        u.setUsername(name);
+        u.setEmail(name + "@example.com");
+        u.setPassword("not-a-hash");
+        u.setRole(Role.ROLE_CUSTOMER);
+        return users.save(u);
+    }
+
+    public UserAddress address(User user) {
+        UserAddress a = new UserAddress();
+        a.setUser(user);
+        a.setAddressType("Home");
+        a.setAddressLine1("1 Main Street");
+        a.setUpazila("Central");
+        a.setCity("Dhaka");
+        a.setCountry("Bangladesh");
+        a.setPhone("0123456789");
+        return addresses.save(a);
+    }
+
+    public CartItem cartItem(User user, Product product, int quantity) {
+        CartItem ci = new CartItem();
+        ci.setUser(user);
+        ci.setProduct(product);
+        ci.setQuantity(quantity);
+        return cartItems.save(ci);
+    }
+}
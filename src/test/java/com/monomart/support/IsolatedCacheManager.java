@@ -0,0 +1,32 @@
+package com.monomart.support;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Gives each application context a second-level cache of its own. The JCache provider is
+ * JVM-wide, so contexts on different test databases would otherwise share regions and serve each
+ * other's entities for the same ids. Caffeine loads {@code application.conf} for any URI that is
+ * not a file or classpath resource.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class IsolatedCacheManager {
+
+    private static final AtomicInteger CONTEXTS = new AtomicInteger();
+
+    @Bean
+    HibernatePropertiesCustomizer perContextCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("monomart-test:context-" + CONTEXTS.incrementAndGet()), provider.getDefaultClassLoader());
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+}
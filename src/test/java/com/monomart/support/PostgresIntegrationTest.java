@@ -0,0 +1,34 @@
+package com.monomart.support;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Boots the application against a fresh Postgres database migrated by Liquibase, for behaviour
+ * that H2 cannot reproduce (native SQL, row locks, LISTEN/NOTIFY).
+ */
+@SpringBootTest
+@Import(IsolatedCacheManager.class)
+@ActiveProfiles({ "test", "postgres" })
+public abstract class PostgresIntegrationTest {
+
+    // Runs before the context is loaded, so subclasses are skipped without Docker or TEST_PG_URL.
+    @BeforeAll
+    static void requirePostgres() {
+        assumeTrue(TestPostgres.available(), "Postgres not available: no Docker and no TEST_PG_URL");
+    }
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        String url = TestPostgres.newDatabase();
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", TestPostgres::username);
+        registry.add("spring.datasource.password", TestPostgres::password);
+    }
+}
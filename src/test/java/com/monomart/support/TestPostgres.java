@@ -0,0 +1,66 @@
+package com.monomart.support;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * A Postgres server for integration tests: a shared Testcontainers container when Docker is
+ * available, otherwise the server named by {@code TEST_PG_URL} (plus {@code TEST_PG_USERNAME} and
+ * {@code TEST_PG_PASSWORD}). Tests that need it are skipped when neither is available.
+ */
+public final class TestPostgres {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static PostgreSQLContainer<?> container;
+
+    private TestPostgres() {
+    }
+
+    public static boolean available() {
+        return System.getenv("TEST_PG_URL") != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    /**
+     * Creates an empty database on the server and returns its JDBC URL.
+     */
+    public static synchronized String newDatabase() {
+        String name = "monomart_test_" + ProcessHandle.current().pid() + "_" + DATABASES.incrementAndGet();
+        try (Connection c = DriverManager.getConnection(serverUrl(), username(), password());
+             Statement s = c.createStatement()) {
+            s.execute("CREATE DATABASE " + name);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create test database " + name, e);
+        }
+        String url = serverUrl();
+        return url.substring(0, url.lastIndexOf('/') + 1) + name;
+    }
+
+    public static String username() {
+        return container != null ? container.getUsername() : env("TEST_PG_USERNAME", "postgres");
+    }
+
+    public static String password() {
+        return container != null ? container.getPassword() : env("TEST_PG_PASSWORD", "");
+    }
+
+    private static String serverUrl() {
+        String url = System.getenv("TEST_PG_URL");
+        if (url != null)
+            return url;
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:16-alpine");
+            container.start();
+        }
+        return container.getJdbcUrl();
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+}